@@ -0,0 +1,28 @@
+package br.com.crazycrowd.openssh.agent;
+
+import java.security.KeyPair;
+
+/**
+ * A key served by OpenSSHAgentServer.
+ */
+public class OpenSSHAgentIdentity {
+
+  public final KeyPair keyPair;
+  public final String comment;
+
+  /**
+   * Public key blob, as sent to clients on identities answer
+   */
+  public final byte[] publicKeyBlob;
+
+  public OpenSSHAgentIdentity(
+      final KeyPair keyPair,
+      final String comment,
+      final byte[] publicKeyBlob
+  ) {
+    this.keyPair = keyPair;
+    this.comment = comment;
+    this.publicKeyBlob = publicKeyBlob;
+  }
+
+}
@@ -0,0 +1,43 @@
+package br.com.crazycrowd.openssh.agent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Extracted from ssh-agent protocol draft (draft-miller-ssh-agent), only
+ * messages handled by OpenSSHAgentServer. Any other request is answered with
+ * FAILURE.
+ */
+public enum OpenSSHAgentMessageType {
+
+  FAILURE(5),
+  SUCCESS(6),
+  REQUEST_IDENTITIES(11),
+  IDENTITIES_ANSWER(12),
+  SIGN_REQUEST(13),
+  SIGN_RESPONSE(14);
+
+  public final int code;
+  private static final Map<Integer, OpenSSHAgentMessageType> codeToEnumMap;
+
+  OpenSSHAgentMessageType(final int code) {
+    this.code = code;
+  }
+
+  static {
+    codeToEnumMap = new HashMap<>();
+
+    for (final OpenSSHAgentMessageType messageType : values()) {
+      codeToEnumMap.put(messageType.code, messageType);
+    }
+  }
+
+  /**
+   * @param code Message type byte
+   * @return Message type, or null for messages this agent does not know
+   */
+  public static OpenSSHAgentMessageType getFromCode(final int code) {
+    return codeToEnumMap.get(code);
+  }
+
+}
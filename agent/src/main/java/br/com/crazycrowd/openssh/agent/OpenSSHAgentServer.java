@@ -0,0 +1,401 @@
+package br.com.crazycrowd.openssh.agent;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.signature.OpenSSHSigner;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves keys loaded with OpenSSHKeyReader over ssh-agent protocol, on a Unix
+ * domain socket. Point `SSH_AUTH_SOCK` to the socket path and `ssh`,
+ * `ssh-add -L`, `ssh-keygen -Y sign` or any agent client can use the keys.
+ * <p>
+ * Encrypted key files are decrypted (and bcrypt paid) once, by the process
+ * running this server, instead of once per process needing the keys.
+ * <p>
+ * Only identities listing and sign requests are supported: keys can not be
+ * added or removed by clients. Each client connection is served by a task on
+ * client executor. By default, that is a virtual thread per client when
+ * running on Java 21+, and a cached thread pool otherwise.
+ * <p>
+ * Socket is bound inside a freshly created owner only directory, as ssh-agent
+ * does.
+ */
+public class OpenSSHAgentServer implements AutoCloseable {
+
+  // Same limit as OpenSSH ssh-agent AGENT_MAX_LEN
+  private static final int MAX_MESSAGE_LENGTH = 256 * 1024;
+  private static final String DIRECTORY_PREFIX = "openssh-agent-";
+  private static final String SOCKET_FILE_NAME = "agent.sock";
+  // Accept failures (e.g. out of file descriptors) usually persist for a
+  // while, so retries are spaced out up to this delay
+  private static final long MIN_ACCEPT_RETRY_MILLIS = 10;
+  private static final long MAX_ACCEPT_RETRY_MILLIS = 1000;
+
+  private final ExecutorService clientExecutor;
+  private final boolean ownsExecutor;
+  private final OpenSSHSigner signer;
+  private final List<OpenSSHAgentIdentity> identities;
+  private final Map<ByteBuffer, OpenSSHAgentIdentity> identitiesByBlob;
+  private final Set<SocketChannel> clients;
+
+  private ServerSocketChannel serverChannel;
+  private Path socketPath;
+
+  public OpenSSHAgentServer() {
+    this(newDefaultExecutor(), true);
+  }
+
+  /**
+   * @param clientExecutor Executor running one task per connected client. It
+   *                       is not shut down by `close()`
+   */
+  public OpenSSHAgentServer(final ExecutorService clientExecutor) {
+    this(clientExecutor, false);
+  }
+
+  private OpenSSHAgentServer(
+      final ExecutorService clientExecutor,
+      final boolean ownsExecutor
+  ) {
+    this.clientExecutor = clientExecutor;
+    this.ownsExecutor = ownsExecutor;
+    this.signer = new OpenSSHSigner();
+    this.identities = new CopyOnWriteArrayList<>();
+    this.identitiesByBlob = new ConcurrentHashMap<>();
+    this.clients = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Adds a key to be served. Keys can be added while server is running.
+   *
+   * @param keyPair Key pair, as returned by OpenSSHKeyReader
+   * @param comment Comment sent to clients, usually key file name
+   */
+  public void addIdentity(final KeyPair keyPair, final String comment) {
+    final byte[] publicKeyBlob =
+        OpenSSHKeyWriter.getInstance().writePublicKey(keyPair.getPublic());
+    final OpenSSHAgentIdentity identity =
+        new OpenSSHAgentIdentity(keyPair, comment, publicKeyBlob);
+
+    if (identitiesByBlob.putIfAbsent(ByteBuffer.wrap(publicKeyBlob), identity)
+        == null) {
+      identities.add(identity);
+    }
+  }
+
+  /**
+   * Adds every key read from a file, all with the same comment.
+   */
+  public void addIdentities(final List<KeyPair> keyPairs, final String comment) {
+    for (final KeyPair keyPair : keyPairs) {
+      addIdentity(keyPair, comment);
+    }
+  }
+
+  public List<OpenSSHAgentIdentity> getIdentities() {
+    return new ArrayList<>(identities);
+  }
+
+  /**
+   * Binds socket inside a fresh private directory, created in system temporary
+   * directory, and starts accepting clients on a background thread.
+   *
+   * @return Socket file path, to be used as `SSH_AUTH_SOCK`
+   * @throws IOException In case socket can not be bound, or file system does
+   *                     not support POSIX permissions
+   */
+  public Path start() throws IOException {
+    return start(Path.of(System.getProperty("java.io.tmpdir")));
+  }
+
+  /**
+   * Binds socket inside a fresh private directory and starts accepting clients
+   * on a background thread.
+   * <p>
+   * As ssh-agent does, the directory is created with owner only permissions
+   * before binding, so other users can never reach the socket. On file
+   * systems without POSIX permissions that can not be guaranteed, so server
+   * does not start.
+   *
+   * @param parentDirectory Directory where private socket directory is created
+   * @return Socket file path, to be used as `SSH_AUTH_SOCK`
+   * @throws IOException In case socket can not be bound, or file system does
+   *                     not support POSIX permissions
+   */
+  public synchronized Path start(final Path parentDirectory)
+      throws IOException {
+    if (serverChannel != null) {
+      throw new IllegalStateException("Agent server already started");
+    }
+
+    final Path directory = createPrivateDirectory(parentDirectory);
+    final Path path = directory.resolve(SOCKET_FILE_NAME);
+    final ServerSocketChannel channel =
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+
+    try {
+      channel.bind(UnixDomainSocketAddress.of(path));
+    } catch (final IOException e) {
+      channel.close();
+      Files.deleteIfExists(directory);
+      throw e;
+    }
+
+    this.serverChannel = channel;
+    this.socketPath = path;
+
+    final Thread acceptThread =
+        new Thread(() -> acceptClients(channel), "openssh-agent-accept");
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+
+    return path;
+  }
+
+  public synchronized Path getSocketPath() {
+    return socketPath;
+  }
+
+  /**
+   * Stops accepting clients, disconnects connected ones and removes socket
+   * file.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (serverChannel == null) {
+      return;
+    }
+
+    serverChannel.close();
+
+    for (final SocketChannel client : clients) {
+      client.close();
+    }
+
+    if (ownsExecutor) {
+      clientExecutor.shutdown();
+    }
+
+    Files.deleteIfExists(socketPath);
+    Files.deleteIfExists(socketPath.getParent());
+    serverChannel = null;
+    socketPath = null;
+  }
+
+  private static Path createPrivateDirectory(final Path parentDirectory)
+      throws IOException {
+    if (!FileSystems.getDefault().supportedFileAttributeViews()
+        .contains("posix")) {
+      throw new IOException("Agent socket directory requires a file system " +
+          "with POSIX permissions");
+    }
+
+    return Files.createTempDirectory(
+        parentDirectory,
+        DIRECTORY_PREFIX,
+        PosixFilePermissions.asFileAttribute(
+            PosixFilePermissions.fromString("rwx------")
+        )
+    );
+  }
+
+  private void acceptClients(final ServerSocketChannel channel) {
+    long retryMillis = MIN_ACCEPT_RETRY_MILLIS;
+
+    while (channel.isOpen()) {
+      final SocketChannel client;
+
+      try {
+        client = channel.accept();
+      } catch (final ClosedChannelException e) {
+        return;
+      } catch (final IOException e) {
+        if (!sleep(retryMillis)) {
+          return;
+        }
+
+        retryMillis = Math.min(retryMillis * 2, MAX_ACCEPT_RETRY_MILLIS);
+        continue;
+      }
+
+      retryMillis = MIN_ACCEPT_RETRY_MILLIS;
+      clients.add(client);
+
+      try {
+        clientExecutor.execute(() -> serveClient(client));
+      } catch (final RejectedExecutionException e) {
+        // Server closed while accepting: drop client and stop
+        clients.remove(client);
+        closeQuietly(client);
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return false if interrupted, so accept loop stops
+   */
+  private static boolean sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void closeQuietly(final SocketChannel client) {
+    try {
+      client.close();
+    } catch (final IOException e) {
+      // Nothing else to do with a rejected client
+    }
+  }
+
+  private void serveClient(final SocketChannel client) {
+    try (client) {
+      final ByteBuffer lengthBuf = ByteBuffer.allocate(4);
+
+      while (readFully(client, lengthBuf.clear())) {
+        final int length = lengthBuf.flip().getInt();
+
+        if (length < 1 || length > MAX_MESSAGE_LENGTH) {
+          return;
+        }
+
+        final ByteBuffer message = ByteBuffer.allocate(length);
+
+        if (!readFully(client, message)) {
+          return;
+        }
+
+        final ByteBuffer response = ByteBuffer.wrap(
+            new ByteArrayWriter()
+                .writeString(handleMessage(message.flip()))
+                .toByteArray()
+        );
+
+        while (response.hasRemaining()) {
+          client.write(response);
+        }
+      }
+    } catch (final IOException e) {
+      // Client went away: nothing to answer
+    } finally {
+      clients.remove(client);
+    }
+  }
+
+  private byte[] handleMessage(final ByteBuffer message) {
+    final OpenSSHAgentMessageType messageType =
+        OpenSSHAgentMessageType.getFromCode(message.get() & 0xFF);
+
+    try {
+      if (messageType == OpenSSHAgentMessageType.REQUEST_IDENTITIES) {
+        return answerIdentities();
+      }
+
+      if (messageType == OpenSSHAgentMessageType.SIGN_REQUEST) {
+        return answerSignRequest(message);
+      }
+    } catch (final GeneralSecurityException | RuntimeException e) {
+      // Malformed request or signing failure: client gets a FAILURE
+    }
+
+    return new byte[]{(byte) OpenSSHAgentMessageType.FAILURE.code};
+  }
+
+  private byte[] answerIdentities() {
+    final List<OpenSSHAgentIdentity> currentIdentities = getIdentities();
+    final ByteArrayWriter writer = new ByteArrayWriter()
+        .writeByte(OpenSSHAgentMessageType.IDENTITIES_ANSWER.code)
+        .writeInt(currentIdentities.size());
+
+    for (final OpenSSHAgentIdentity identity : currentIdentities) {
+      writer.writeString(identity.publicKeyBlob);
+      writer.writeString(identity.comment);
+    }
+
+    return writer.toByteArray();
+  }
+
+  /**
+   * Request fields: key blob, data to sign and flags. Flags only select RSA
+   * signature hashes, so they are ignored for supported key types.
+   */
+  private byte[] answerSignRequest(
+      final ByteBuffer message
+  ) throws GeneralSecurityException {
+    final byte[] publicKeyBlob = ByteBufferUtils.readStringBytes(message);
+    final byte[] data = ByteBufferUtils.readStringBytes(message);
+
+    final OpenSSHAgentIdentity identity =
+        identitiesByBlob.get(ByteBuffer.wrap(publicKeyBlob));
+
+    if (identity == null) {
+      return new byte[]{(byte) OpenSSHAgentMessageType.FAILURE.code};
+    }
+
+    return new ByteArrayWriter()
+        .writeByte(OpenSSHAgentMessageType.SIGN_RESPONSE.code)
+        .writeString(signer.sign(identity.keyPair.getPrivate(), data))
+        .toByteArray();
+  }
+
+  private static boolean readFully(
+      final SocketChannel channel,
+      final ByteBuffer buf
+  ) throws IOException {
+    while (buf.hasRemaining()) {
+      if (channel.read(buf) == -1) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Virtual threads are looked up by reflection, so this module still builds
+   * and runs on Java 16+.
+   */
+  private static ExecutorService newDefaultExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (final ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "openssh-agent-client");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+}
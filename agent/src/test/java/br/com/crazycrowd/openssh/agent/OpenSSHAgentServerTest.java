@@ -0,0 +1,155 @@
+package br.com.crazycrowd.openssh.agent;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.signature.OpenSSHVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenSSHAgentServerTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+
+  @TempDir
+  Path tempDir;
+
+  private KeyPair keyPair;
+  private Path socketPath;
+  private OpenSSHAgentServer server;
+
+  @BeforeEach
+  public void startServer() throws Exception {
+    keyPair = OpenSSHKeyReader.getInstance()
+        .readFile(resources.resolve("ed25519_without_passphrase.key"))
+        .get(0);
+
+    server = new OpenSSHAgentServer();
+    server.addIdentity(keyPair, "test key");
+    socketPath = server.start(tempDir);
+  }
+
+  @AfterEach
+  public void stopServer() throws IOException {
+    server.close();
+  }
+
+  @Test
+  public void bindsSocketInPrivateDirectory() throws Exception {
+    assertThat(socketPath.getParent().getParent()).isEqualTo(tempDir);
+    assertThat(Files.getPosixFilePermissions(socketPath.getParent()))
+        .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+
+    server.close();
+
+    assertThat(socketPath.getParent()).doesNotExist();
+  }
+
+  @Test
+  public void listsIdentities() throws Exception {
+    try (SocketChannel client = connect()) {
+      final ByteBuffer response = request(
+          client,
+          new byte[]{(byte) OpenSSHAgentMessageType.REQUEST_IDENTITIES.code}
+      );
+
+      assertThat(response.get())
+          .isEqualTo((byte) OpenSSHAgentMessageType.IDENTITIES_ANSWER.code);
+      assertThat(response.getInt()).isEqualTo(1);
+      assertThat(ByteBufferUtils.readStringBytes(response)).isEqualTo(
+          OpenSSHKeyWriter.getInstance().writePublicKey(keyPair.getPublic())
+      );
+      assertThat(ByteBufferUtils.readString(response)).isEqualTo("test key");
+    }
+  }
+
+  @Test
+  public void signsWithServedKey() throws Exception {
+    final byte[] data = {0, 1, 2, 3, 4, 5};
+
+    try (SocketChannel client = connect()) {
+      final ByteBuffer response = request(
+          client,
+          new ByteArrayWriter()
+              .writeByte(OpenSSHAgentMessageType.SIGN_REQUEST.code)
+              .writeString(
+                  OpenSSHKeyWriter.getInstance()
+                      .writePublicKey(keyPair.getPublic())
+              )
+              .writeString(data)
+              .writeInt(0)
+              .toByteArray()
+      );
+
+      assertThat(response.get())
+          .isEqualTo((byte) OpenSSHAgentMessageType.SIGN_RESPONSE.code);
+
+      final byte[] signature = ByteBufferUtils.readStringBytes(response);
+
+      assertThat(
+          new OpenSSHVerifier().verify(keyPair.getPublic(), data, signature)
+      ).isTrue();
+    }
+  }
+
+  @Test
+  public void failsUnknownRequests() throws Exception {
+    try (SocketChannel client = connect()) {
+      // SSH_AGENTC_REMOVE_ALL_IDENTITIES
+      final ByteBuffer response = request(client, new byte[]{19});
+
+      assertThat(response.get())
+          .isEqualTo((byte) OpenSSHAgentMessageType.FAILURE.code);
+    }
+  }
+
+  private SocketChannel connect() throws IOException {
+    return SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+  }
+
+  private ByteBuffer request(
+      final SocketChannel client,
+      final byte[] message
+  ) throws IOException {
+    final ByteBuffer requestBuf =
+        ByteBuffer.wrap(new ByteArrayWriter().writeString(message).toByteArray());
+
+    while (requestBuf.hasRemaining()) {
+      client.write(requestBuf);
+    }
+
+    final ByteBuffer lengthBuf = ByteBuffer.allocate(4);
+    readFully(client, lengthBuf);
+
+    final ByteBuffer response = ByteBuffer.allocate(lengthBuf.flip().getInt());
+    readFully(client, response);
+
+    return response.flip();
+  }
+
+  private void readFully(
+      final SocketChannel client,
+      final ByteBuffer buf
+  ) throws IOException {
+    while (buf.hasRemaining()) {
+      if (client.read(buf) == -1) {
+        throw new IOException("Agent closed connection");
+      }
+    }
+  }
+
+}
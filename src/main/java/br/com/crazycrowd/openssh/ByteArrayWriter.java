@@ -0,0 +1,66 @@
+package br.com.crazycrowd.openssh;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writing counterpart of ByteBufferUtils: builds byte arrays using OpenSSH
+ * wire types (check `sshbuf-getput-basic.c` link on README.md).
+ */
+public class ByteArrayWriter {
+
+  private final ByteArrayOutputStream out;
+
+  public ByteArrayWriter() {
+    this.out = new ByteArrayOutputStream();
+  }
+
+  public ByteArrayWriter(final int initialSize) {
+    this.out = new ByteArrayOutputStream(initialSize);
+  }
+
+  public ByteArrayWriter writeByte(final int value) {
+    out.write(value);
+    return this;
+  }
+
+  public ByteArrayWriter writeInt(final int value) {
+    out.write(value >>> 24);
+    out.write(value >>> 16);
+    out.write(value >>> 8);
+    out.write(value);
+    return this;
+  }
+
+  public ByteArrayWriter writeLong(final long value) {
+    writeInt((int) (value >>> 32));
+    writeInt((int) value);
+    return this;
+  }
+
+  /**
+   * Writes bytes as they are, without a length prefix.
+   */
+  public ByteArrayWriter writeRawBytes(final byte[] bytes) {
+    out.write(bytes, 0, bytes.length);
+    return this;
+  }
+
+  public ByteArrayWriter writeString(final byte[] bytes) {
+    writeInt(bytes.length);
+    return writeRawBytes(bytes);
+  }
+
+  public ByteArrayWriter writeString(final String string) {
+    return writeString(string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public int size() {
+    return out.size();
+  }
+
+  public byte[] toByteArray() {
+    return out.toByteArray();
+  }
+
+}
@@ -0,0 +1,119 @@
+package br.com.crazycrowd.openssh;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Small thread safe cache bounded to `maxSize` entries that prefers keeping
+ * frequently used entries. Like LruCache, least recently used entry is the
+ * eviction candidate, but a new entry only replaces it when its key was
+ * requested more often. A burst of one-off keys (a directory scan, say) does
+ * not flush keys that are used all the time.
+ * <p>
+ * Request counts are kept for a bounded number of keys, including keys not
+ * cached, and are halved every `10 * maxSize` requests so that old
+ * popularity fades.
+ *
+ * @param <K> Key type. Must implement `equals()` and `hashCode()`
+ * @param <V> Value type
+ */
+public class FrequencyAwareCache<K, V> {
+
+  private static final int SAMPLE_SIZE_PER_ENTRY = 10;
+
+  private final int maxSize;
+  private final int sampleSize;
+  private final Map<K, V> entries;
+  private final Map<K, Integer> frequencies = new HashMap<>();
+  private int requests;
+
+  public FrequencyAwareCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(
+          "Cache size must be positive: " + maxSize
+      );
+    }
+
+    this.maxSize = maxSize;
+    this.sampleSize = maxSize * SAMPLE_SIZE_PER_ENTRY;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Also counts as a request for key, even when it is not cached.
+   */
+  public synchronized V get(final K key) {
+    recordRequest(key);
+    return entries.get(key);
+  }
+
+  /**
+   * @return true if value was cached, false if key is not requested often
+   * enough to take the place of least recently used entry
+   */
+  public synchronized boolean put(final K key, final V value) {
+    if (entries.containsKey(key) || entries.size() < maxSize) {
+      entries.put(key, value);
+      return true;
+    }
+
+    final Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+    final K victim = eldest.next().getKey();
+
+    if (frequency(key) <= frequency(victim)) {
+      return false;
+    }
+
+    eldest.remove();
+    entries.put(key, value);
+
+    return true;
+  }
+
+  public synchronized V remove(final K key) {
+    return entries.remove(key);
+  }
+
+  /**
+   * @return Number of removed entries
+   */
+  public synchronized int removeIf(final Predicate<? super K> filter) {
+    final int sizeBefore = entries.size();
+
+    entries.keySet().removeIf(filter);
+
+    return sizeBefore - entries.size();
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    frequencies.clear();
+    requests = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  private int frequency(final K key) {
+    return frequencies.getOrDefault(key, 0);
+  }
+
+  private void recordRequest(final K key) {
+    frequencies.merge(key, 1, Integer::sum);
+
+    if (++requests >= sampleSize || frequencies.size() > sampleSize) {
+      requests = 0;
+      frequencies.replaceAll((ignored, count) -> count / 2);
+      frequencies.values().removeIf(count -> count == 0);
+    }
+  }
+
+}
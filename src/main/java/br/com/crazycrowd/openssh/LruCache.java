@@ -0,0 +1,72 @@
+package br.com.crazycrowd.openssh;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread safe cache that evicts its least recently used entry once
+ * `maxSize` is reached. Good enough for the hot sets this library deals with
+ * (a handful of keys or certificates), where a full blown cache library would
+ * be an unwanted dependency.
+ *
+ * @param <K> Key type. Must implement `equals()` and `hashCode()`
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+
+  private final int maxSize;
+  private final Map<K, V> entries;
+
+  public LruCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(
+          "Cache size must be positive: " + maxSize
+      );
+    }
+
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return size() > LruCache.this.maxSize;
+      }
+    };
+  }
+
+  public synchronized V get(final K key) {
+    return entries.get(key);
+  }
+
+  public synchronized void put(final K key, final V value) {
+    entries.put(key, value);
+  }
+
+  /**
+   * Same as `Map.computeIfAbsent()`. `mappingFunction` runs while holding
+   * cache lock, so keep it cheap.
+   */
+  public synchronized V computeIfAbsent(
+      final K key,
+      final Function<? super K, ? extends V> mappingFunction
+  ) {
+    return entries.computeIfAbsent(key, mappingFunction);
+  }
+
+  public synchronized V remove(final K key) {
+    return entries.remove(key);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+}
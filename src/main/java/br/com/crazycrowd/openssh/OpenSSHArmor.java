@@ -0,0 +1,135 @@
+package br.com.crazycrowd.openssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Text armor shared by OpenSSH formats: a begin line, Base64 content wrapped
+ * at the same line length `ssh-keygen` uses, and an end line.
+ */
+public class OpenSSHArmor {
+
+  public static final int LINE_LENGTH = 70;
+
+  // Two full lines of Base64 (140 chars) encode exactly 105 bytes, so every
+  // chunk but the last one ends on a line boundary, without padding
+  private static final int CHUNK_SIZE = 2 * LINE_LENGTH / 4 * 3;
+  private static final int CHANNEL_BUFFER_SIZE = 4096;
+  private static final byte[] LINE_BREAK = {'\n'};
+
+  private OpenSSHArmor() {
+  }
+
+  /**
+   * @param beginLine Armor begin line, without line break
+   * @param endLine   Armor end line, without line break
+   * @param blob      Content to Base64 encode
+   * @return Armored content, ending with a line break
+   */
+  public static String armor(
+      final String beginLine,
+      final String endLine,
+      final byte[] blob
+  ) {
+    final ByteArrayOutputStream out =
+        new ByteArrayOutputStream(blob.length * 4 / 3 + 128);
+
+    try {
+      writeArmored(beginLine, endLine, blob, Channels.newChannel(out));
+    } catch (final IOException e) {
+      // ByteArrayOutputStream does not throw
+      throw new UncheckedIOException(e);
+    }
+
+    return out.toString(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Same as `armor()`, written to a channel a few lines at a time, as they
+   * are encoded, instead of building the whole armored text first. Channel is
+   * not closed.
+   *
+   * @param beginLine Armor begin line, without line break
+   * @param endLine   Armor end line, without line break
+   * @param blob      Content to Base64 encode
+   * @param channel   Where armored content is written
+   * @throws IOException In case there is a problem writing to channel
+   */
+  public static void writeArmored(
+      final String beginLine,
+      final String endLine,
+      final byte[] blob,
+      final WritableByteChannel channel
+  ) throws IOException {
+    final Base64.Encoder encoder = Base64.getEncoder();
+    final ByteBuffer buf = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+
+    writeLine(channel, buf, beginLine.getBytes(StandardCharsets.US_ASCII));
+
+    for (int offset = 0; offset < blob.length; offset += CHUNK_SIZE) {
+      final ByteBuffer base64 = encoder.encode(ByteBuffer.wrap(
+          blob,
+          offset,
+          Math.min(CHUNK_SIZE, blob.length - offset)
+      ));
+
+      while (base64.hasRemaining()) {
+        final int lineLength = Math.min(LINE_LENGTH, base64.remaining());
+
+        put(channel, buf, base64.slice().limit(lineLength));
+        put(channel, buf, ByteBuffer.wrap(LINE_BREAK));
+        base64.position(base64.position() + lineLength);
+      }
+    }
+
+    writeLine(channel, buf, endLine.getBytes(StandardCharsets.US_ASCII));
+    drain(channel, buf.flip());
+  }
+
+  private static void writeLine(
+      final WritableByteChannel channel,
+      final ByteBuffer buf,
+      final byte[] line
+  ) throws IOException {
+    put(channel, buf, ByteBuffer.wrap(line));
+    put(channel, buf, ByteBuffer.wrap(LINE_BREAK));
+  }
+
+  /**
+   * Copies content into buffer, writing buffer to channel whenever it fills
+   * up.
+   */
+  private static void put(
+      final WritableByteChannel channel,
+      final ByteBuffer buf,
+      final ByteBuffer content
+  ) throws IOException {
+    while (content.hasRemaining()) {
+      if (!buf.hasRemaining()) {
+        drain(channel, buf.flip());
+        buf.clear();
+      }
+
+      final int length = Math.min(buf.remaining(), content.remaining());
+
+      buf.put(content.slice().limit(length));
+      content.position(content.position() + length);
+    }
+  }
+
+  private static void drain(
+      final WritableByteChannel channel,
+      final ByteBuffer buf
+  ) throws IOException {
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    }
+  }
+
+}
@@ -0,0 +1,19 @@
+package br.com.crazycrowd.openssh;
+
+import java.security.KeyPair;
+
+/**
+ * A key pair together with the comment OpenSSH stores next to its private
+ * key (`ssh-keygen -C`).
+ */
+public class OpenSSHKeyEntry {
+
+  public final KeyPair keyPair;
+  public final String comment;
+
+  public OpenSSHKeyEntry(final KeyPair keyPair, final String comment) {
+    this.keyPair = keyPair;
+    this.comment = comment;
+  }
+
+}
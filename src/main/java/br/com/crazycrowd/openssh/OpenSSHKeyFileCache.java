@@ -0,0 +1,279 @@
+package br.com.crazycrowd.openssh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in memoization of `OpenSSHKeyReader.readFile()`. Install it with
+ * `OpenSSHKeyReader.setFileCache()`.
+ * <p>
+ * Entries are keyed by file identity (real path, file key, which is device
+ * and inode on Unix, modification time and size) and by passphrase, of which
+ * only a PassphraseMac is kept. Reading an unchanged file returns the same key pairs without
+ * reading, decoding or decrypting it again (so no KDF cost), and a changed
+ * file is read again on its next use. A file changed while it is being read
+ * is not cached. Concurrent reads of the same uncached file share a single
+ * load.
+ * <p>
+ * Keep in mind that cached key pairs hold decrypted private keys in memory
+ * for as long as they are cached.
+ */
+public class OpenSSHKeyFileCache {
+
+  public static final int DEFAULT_MAX_SIZE = 64;
+
+  private final FrequencyAwareCache<FileIdentity, List<KeyPair>> entries;
+  private final Map<FileIdentity, CompletableFuture<List<KeyPair>>> loading =
+      new ConcurrentHashMap<>();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final PassphraseMac passphraseMac = new PassphraseMac();
+
+  public OpenSSHKeyFileCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * @param maxSize Max number of cached files (each file and passphrase
+   *                combination counts once)
+   */
+  public OpenSSHKeyFileCache(final int maxSize) {
+    this.entries = new FrequencyAwareCache<>(maxSize);
+  }
+
+  /**
+   * Loads keys from file. Should throw the same exceptions
+   * `OpenSSHKeyReader.readFile()` does.
+   */
+  interface KeyFileLoader {
+    List<KeyPair> load(
+        final Path filePath,
+        final String passphrase
+    ) throws IOException, GeneralSecurityException;
+  }
+
+  List<KeyPair> readFile(
+      final Path filePath,
+      final String passphrase,
+      final KeyFileLoader loader
+  ) throws IOException, GeneralSecurityException {
+    final ByteBuffer passphraseId = passphraseId(passphrase);
+    final FileIdentity identity = FileIdentity.of(filePath, passphraseId);
+    final List<KeyPair> cached = entries.get(identity);
+
+    if (cached != null) {
+      hitCount.incrementAndGet();
+      return cached;
+    }
+
+    final CompletableFuture<List<KeyPair>> load = new CompletableFuture<>();
+    final CompletableFuture<List<KeyPair>> running =
+        loading.putIfAbsent(identity, load);
+
+    if (running != null) {
+      hitCount.incrementAndGet();
+      return await(running);
+    }
+
+    missCount.incrementAndGet();
+
+    try {
+      final List<KeyPair> keyPairs =
+          Collections.unmodifiableList(loader.load(filePath, passphrase));
+
+      if (identity.equals(FileIdentity.of(filePath, passphraseId))) {
+        entries.put(identity, keyPairs);
+      }
+
+      load.complete(keyPairs);
+
+      return keyPairs;
+    } catch (final IOException | GeneralSecurityException |
+        RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(identity, load);
+    }
+  }
+
+  /**
+   * Removes every cached entry of a file, whatever passphrase was used.
+   *
+   * Works for files already deleted or moved: entries are matched both by
+   * resolved real path and by the path they were read with.
+   *
+   * @param filePath Key file. Symbolic links are resolved when they still
+   *                 exist
+   * @return Number of removed entries
+   */
+  public int invalidate(final Path filePath) {
+    final Path absolutePath = filePath.toAbsolutePath().normalize();
+    Path resolvedPath;
+
+    try {
+      resolvedPath = filePath.toRealPath();
+    } catch (final IOException e) {
+      resolvedPath = absolutePath;
+    }
+
+    final Path realPath = resolvedPath;
+
+    return entries.removeIf(identity ->
+        identity.realPath.equals(realPath) ||
+            identity.realPath.equals(absolutePath) ||
+            identity.readPath.equals(absolutePath)
+    );
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public int getMaxSize() {
+    return entries.getMaxSize();
+  }
+
+  /**
+   * @return Number of reads served without loading file
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return Number of reads that loaded file
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Passphrase is encoded as OpenSSHKeyReader does, so passphrases the reader
+   * sees as equal share entries.
+   */
+  private ByteBuffer passphraseId(final String passphrase) {
+    final byte[] passphraseBytes = OpenSSHKeyReader.toBytes(passphrase);
+
+    try {
+      return ByteBuffer.wrap(passphraseMac.mac(passphraseBytes));
+    } finally {
+      if (passphraseBytes != null) {
+        Arrays.fill(passphraseBytes, (byte) 0);
+      }
+    }
+  }
+
+  private static List<KeyPair> await(
+      final CompletableFuture<List<KeyPair>> load
+  ) throws IOException, GeneralSecurityException {
+    try {
+      return load.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for key file load", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof GeneralSecurityException) {
+        throw (GeneralSecurityException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  private static class FileIdentity {
+
+    private final Path realPath;
+    // Path as given to readFile(), not part of identity
+    private final Path readPath;
+    private final Object fileKey;
+    private final FileTime lastModifiedTime;
+    private final long size;
+    private final ByteBuffer passphraseId;
+
+    private FileIdentity(
+        final Path realPath,
+        final Path readPath,
+        final Object fileKey,
+        final FileTime lastModifiedTime,
+        final long size,
+        final ByteBuffer passphraseId
+    ) {
+      this.realPath = realPath;
+      this.readPath = readPath;
+      this.fileKey = fileKey;
+      this.lastModifiedTime = lastModifiedTime;
+      this.size = size;
+      this.passphraseId = passphraseId;
+    }
+
+    static FileIdentity of(
+        final Path filePath,
+        final ByteBuffer passphraseId
+    ) throws IOException {
+      final Path realPath = filePath.toRealPath();
+      final BasicFileAttributes attributes =
+          Files.readAttributes(realPath, BasicFileAttributes.class);
+
+      return new FileIdentity(
+          realPath,
+          filePath.toAbsolutePath().normalize(),
+          attributes.fileKey(),
+          attributes.lastModifiedTime(),
+          attributes.size(),
+          passphraseId
+      );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+
+      if (!(other instanceof FileIdentity)) {
+        return false;
+      }
+
+      final FileIdentity otherIdentity = (FileIdentity) other;
+
+      return size == otherIdentity.size &&
+          realPath.equals(otherIdentity.realPath) &&
+          Objects.equals(fileKey, otherIdentity.fileKey) &&
+          lastModifiedTime.equals(otherIdentity.lastModifiedTime) &&
+          passphraseId.equals(otherIdentity.passphraseId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(realPath, fileKey, lastModifiedTime, size);
+    }
+
+  }
+
+}
@@ -1,13 +1,22 @@
 package br.com.crazycrowd.openssh;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Base64;
-import java.util.List;
 
 public class OpenSSHKeyFileParser {
 
+  private static final byte[] AUTH_MAGIC_BYTES =
+      OpenSSHKeyReader.AUTH_MAGIC.getBytes(StandardCharsets.US_ASCII);
+  private static final int CHANNEL_BUFFER_SIZE = 4096;
+
   private OpenSSHKeyFileParser() {
   }
 
@@ -20,17 +29,113 @@ public class OpenSSHKeyFileParser {
    * @throws IOException In case there is a problem reading file.
    */
   static byte[] readFileBytesDecoded(final Path filePath) throws IOException {
-    final List<String> lines = Files.readAllLines(filePath);
+    return toArray(decode(ByteBuffer.wrap(Files.readAllBytes(filePath))));
+  }
+
+  /**
+   * Reads a stream until its end and decodes its content. Stream is not
+   * closed.
+   *
+   * @param in Stream with OpenSSH file content
+   * @return Decoded bytes
+   * @throws IOException In case there is a problem reading stream.
+   */
+  static ByteBuffer readStreamDecoded(final InputStream in) throws IOException {
+    return decode(ByteBuffer.wrap(in.readAllBytes()));
+  }
+
+  /**
+   * Reads a channel until its end and decodes its content. Channel is not
+   * closed, and it must be in blocking mode.
+   *
+   * @param channel Channel with OpenSSH file content
+   * @return Decoded bytes
+   * @throws IOException In case there is a problem reading channel.
+   */
+  static ByteBuffer readChannelDecoded(
+      final ReadableByteChannel channel
+  ) throws IOException {
+    if (channel instanceof SelectableChannel &&
+        !((SelectableChannel) channel).isBlocking()) {
+      throw new IllegalArgumentException("Channel must be in blocking mode");
+    }
+
+    ByteBuffer buf = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+
+    while (channel.read(buf) != -1) {
+      if (!buf.hasRemaining()) {
+        buf = ByteBuffer.allocate(buf.capacity() * 2).put(buf.flip());
+      }
+    }
+
+    return decode(buf.flip());
+  }
 
-    final StringBuilder sb = new StringBuilder();
+  /**
+   * Decodes OpenSSH file content. Armor lines (the ones starting with "-")
+   * and line breaks are dropped and remaining content is strictly Base64
+   * decoded, so any other character fails with IllegalArgumentException.
+   * Content already decoded, starting with `openssh-key-v1`, is returned as
+   * is.
+   *
+   * @param content Armored or already decoded content, from its position to
+   *                its limit
+   * @return Decoded bytes
+   */
+  static ByteBuffer decode(final ByteBuffer content) {
+    if (startsWith(content, AUTH_MAGIC_BYTES)) {
+      return content.slice();
+    }
+
+    final ByteArrayOutputStream base64 =
+        new ByteArrayOutputStream(content.remaining());
+    boolean lineStart = true;
+    boolean armorLine = false;
+
+    for (int idx = content.position(); idx < content.limit(); idx++) {
+      final byte current = content.get(idx);
+
+      if (lineStart) {
+        armorLine = current == '-';
+      }
+
+      lineStart = current == '\n';
+
+      if (!armorLine && current != '\n' && current != '\r') {
+        base64.write(current);
+      }
+    }
+
+    return ByteBuffer.wrap(Base64.getDecoder().decode(base64.toByteArray()));
+  }
+
+  static byte[] toArray(final ByteBuffer buf) {
+    if (buf.hasArray() && buf.arrayOffset() == 0 && buf.position() == 0 &&
+        buf.remaining() == buf.array().length) {
+      return buf.array();
+    }
+
+    final byte[] bytes = new byte[buf.remaining()];
+    buf.duplicate().get(bytes);
+
+    return bytes;
+  }
+
+  private static boolean startsWith(
+      final ByteBuffer content,
+      final byte[] prefix
+  ) {
+    if (content.remaining() < prefix.length) {
+      return false;
+    }
 
-    for (final String line : lines) {
-      if (!line.startsWith("-")) {
-        sb.append(line);
+    for (int idx = 0; idx < prefix.length; idx++) {
+      if (content.get(content.position() + idx) != prefix[idx]) {
+        return false;
       }
     }
 
-    return Base64.getDecoder().decode(sb.toString());
+    return true;
   }
 
 }
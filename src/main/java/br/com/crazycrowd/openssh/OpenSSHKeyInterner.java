@@ -0,0 +1,141 @@
+package br.com.crazycrowd.openssh;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonicalizing store for public key objects, like `String.intern()`: the
+ * same key read from many files (per user copies, bundles, backups) is built
+ * once and shared, together with its precomputed tables.
+ * <p>
+ * Keys are looked up by raw public key blob, before being built, so an
+ * interned key is not built again. Keys are weakly referenced: a key nobody
+ * else uses can be collected, and its entry goes away with it.
+ * <p>
+ * Private keys are not interned, as callers may wipe their key material:
+ * sharing them would let one caller corrupt every other one. Private keys
+ * built by OpenSSHKeyReader still reuse the interned public key (for
+ * Ed25519, its precomputed point).
+ * <p>
+ * OpenSSHKeyReader uses one by default. Check
+ * `OpenSSHKeyReader.setKeyInterner()`.
+ */
+public class OpenSSHKeyInterner {
+
+  private final CanonicalMap<PublicKey> publicKeys = new CanonicalMap<>();
+
+  /**
+   * Builds a key from a blob. Same contract as
+   * `OpenSSHKeyReader.readPublicKey()`.
+   */
+  interface PublicKeyBuilder {
+    PublicKey build(final byte[] keyBlob) throws InvalidKeySpecException;
+  }
+
+  /**
+   * @param keyBlob Public key blob, starting with key type string
+   * @param builder Builds key when blob is not interned yet
+   * @return Canonical public key for blob
+   */
+  PublicKey internPublicKey(
+      final byte[] keyBlob,
+      final PublicKeyBuilder builder
+  ) throws InvalidKeySpecException {
+    final ByteBuffer id = ByteBuffer.wrap(keyBlob.clone());
+    final PublicKey internedKey = publicKeys.get(id);
+
+    if (internedKey != null) {
+      return internedKey;
+    }
+
+    // Built outside lock: concurrent misses may build the same key, but only
+    // the first one gets interned and returned
+    return publicKeys.putIfAbsent(id, builder.build(keyBlob));
+  }
+
+  /**
+   * @return Number of interned keys not yet collected
+   */
+  public int size() {
+    return publicKeys.size();
+  }
+
+  public void clear() {
+    publicKeys.clear();
+  }
+
+  /**
+   * Map with weakly referenced values, cleared as they are collected.
+   * ByteBuffer is used as key for byte arrays equality.
+   */
+  private static class CanonicalMap<V extends Key> {
+
+    private final Map<ByteBuffer, KeyReference<V>> entries = new HashMap<>();
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+    synchronized V get(final ByteBuffer id) {
+      expungeCollected();
+
+      final KeyReference<V> reference = entries.get(id);
+
+      return reference == null ? null : reference.get();
+    }
+
+    synchronized V putIfAbsent(final ByteBuffer id, final V key) {
+      expungeCollected();
+
+      final KeyReference<V> reference = entries.get(id);
+      final V internedKey = reference == null ? null : reference.get();
+
+      if (internedKey != null) {
+        return internedKey;
+      }
+
+      entries.put(id, new KeyReference<>(id, key, collected));
+
+      return key;
+    }
+
+    synchronized int size() {
+      expungeCollected();
+      return entries.size();
+    }
+
+    synchronized void clear() {
+      entries.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeCollected() {
+      KeyReference<V> reference;
+
+      while ((reference = (KeyReference<V>) collected.poll()) != null) {
+        // Only remove entry if it was not replaced after key was collected
+        entries.remove(reference.id, reference);
+      }
+    }
+
+  }
+
+  private static class KeyReference<V> extends WeakReference<V> {
+
+    private final ByteBuffer id;
+
+    private KeyReference(
+        final ByteBuffer id,
+        final V key,
+        final ReferenceQueue<V> queue
+    ) {
+      super(key, queue);
+      this.id = id;
+    }
+
+  }
+
+}
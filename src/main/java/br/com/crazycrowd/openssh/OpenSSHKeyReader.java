@@ -7,7 +7,9 @@ import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
 
 import javax.crypto.IllegalBlockSizeException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
@@ -16,22 +18,78 @@ import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 public class OpenSSHKeyReader {
 
-  private static final OpenSSHKeyReader keyReader = new OpenSSHKeyReader();
-  private static final String AUTH_MAGIC = "openssh-key-v1";
+  private static final OpenSSHKeyReader keyReader = new OpenSSHKeyReader(true);
+  private static final OpenSSHKeyReader uncheckedKeyReader =
+      new OpenSSHKeyReader(false);
+  static final String AUTH_MAGIC = "openssh-key-v1";
+
+  private volatile OpenSSHKeyFileCache fileCache;
+  private volatile OpenSSHKeyInterner keyInterner = new OpenSSHKeyInterner();
+  private final boolean checkPublicKey;
 
   /**
    * Singleton class. Use `getInstance()`.
    */
-  private OpenSSHKeyReader() {
+  private OpenSSHKeyReader(final boolean checkPublicKey) {
+    this.checkPublicKey = checkPublicKey;
   }
 
+  /**
+   * @return Reader checking every private key against the public key derived
+   * from it, so a corrupted key is rejected instead of making invalid
+   * signatures
+   */
   public static OpenSSHKeyReader getInstance() {
     return keyReader;
   }
 
+  /**
+   * Separate reader, with its own file cache and interner settings, that
+   * skips deriving public key from private key (for Ed25519, a scalar
+   * multiplication per key). Stored public key copies are still compared.
+   * Use it only for trusted key files.
+   *
+   * @return Reader not checking derived public keys
+   */
+  public static OpenSSHKeyReader getInstanceWithoutPublicKeyCheck() {
+    return uncheckedKeyReader;
+  }
+
+  /**
+   * When set, `readFile()` returns cached key pairs for files that did not
+   * change since they were last read with the same passphrase. Returned
+   * lists are then shared and unmodifiable. Disabled by default.
+   *
+   * @param fileCache Cache to use, or null to always read files
+   */
+  public void setFileCache(final OpenSSHKeyFileCache fileCache) {
+    this.fileCache = fileCache;
+  }
+
+  public OpenSSHKeyFileCache getFileCache() {
+    return fileCache;
+  }
+
+  /**
+   * Every public key read by this reader (and by readers built on it, such
+   * as certificate, KeyStore and signature readers) goes through this
+   * interner, so equal public keys are shared instances. Default one is used
+   * unless replaced.
+   *
+   * @param keyInterner Interner to use, or null to always build new keys
+   */
+  public void setKeyInterner(final OpenSSHKeyInterner keyInterner) {
+    this.keyInterner = keyInterner;
+  }
+
+  public OpenSSHKeyInterner getKeyInterner() {
+    return keyInterner;
+  }
+
   /**
    * Reads an OpenSSH file and its multiple key pairs. This method could be
    * static, but its easier to mock an instance method (I have PowerMock).
@@ -69,11 +127,29 @@ public class OpenSSHKeyReader {
    *                   read with `getBytes()`, so do not use any weird
    *                   characters that could not translate with default charset
    * @return List of all key pairs declared inside specified file
-   * @throws IOException In case there is a problem reading file.
+   * @throws IOException                In case there is a problem reading
+   *                                    file.
+   * @throws RejectedExecutionException In case a KDFGovernor is installed in
+   *                                    BCryptKDF and it does not admit
+   *                                    decryption (overload)
    */
   public List<KeyPair> readFile(
       final Path filePath,
       final String passphrase
+  ) throws IOException, GeneralSecurityException {
+    final OpenSSHKeyFileCache currentFileCache = fileCache;
+
+    if (currentFileCache == null) {
+      return readFileUncached(filePath, passphrase);
+    }
+
+    return currentFileCache
+        .readFile(filePath, passphrase, this::readFileUncached);
+  }
+
+  private List<KeyPair> readFileUncached(
+      final Path filePath,
+      final String passphrase
   ) throws IOException, GeneralSecurityException {
     final byte[] decodedKeyBytes =
         OpenSSHKeyFileParser.readFileBytesDecoded(filePath);
@@ -81,6 +157,162 @@ public class OpenSSHKeyReader {
     return readBytes(decodedKeyBytes, passphrase);
   }
 
+  /**
+   * Same as `readFile(Path, String)`, but also returns each key comment.
+   *
+   * @param filePath   Path to OpenSSH key file
+   * @param passphrase Passphrase to decrypt file, or null
+   * @return List of all keys declared inside specified file, with comments
+   * @throws IOException In case there is a problem reading file.
+   */
+  public List<OpenSSHKeyEntry> readFileEntries(
+      final Path filePath,
+      final String passphrase
+  ) throws IOException, GeneralSecurityException {
+    return readDecodedEntries(
+        ByteBuffer.wrap(OpenSSHKeyFileParser.readFileBytesDecoded(filePath)),
+        toBytes(passphrase)
+    );
+  }
+
+  /**
+   * Reads OpenSSH file content from a stream, until its end. Stream is not
+   * closed.
+   *
+   * @param in Stream with OpenSSH file content, either armored (as written
+   *           by `ssh-keygen`) or already Base64 decoded
+   * @return List of all key pairs declared in stream
+   * @throws IOException In case there is a problem reading stream.
+   */
+  public List<KeyPair> read(
+      final InputStream in
+  ) throws IOException, GeneralSecurityException {
+    return read(in, null);
+  }
+
+  /**
+   * Same as `read(InputStream)`, for encrypted content.
+   *
+   * @param in         Stream with OpenSSH file content
+   * @param passphrase Passphrase to decrypt content
+   * @return List of all key pairs declared in stream
+   * @throws IOException In case there is a problem reading stream.
+   */
+  public List<KeyPair> read(
+      final InputStream in,
+      final String passphrase
+  ) throws IOException, GeneralSecurityException {
+    return readDecoded(
+        OpenSSHKeyFileParser.readStreamDecoded(in),
+        toBytes(passphrase)
+    );
+  }
+
+  /**
+   * Reads OpenSSH file content from a channel, until its end. Channel is not
+   * closed, and it must be in blocking mode: non-blocking selectable channels
+   * are rejected with IllegalArgumentException.
+   *
+   * @param channel Channel with OpenSSH file content, either armored (as
+   *                written by `ssh-keygen`) or already Base64 decoded
+   * @return List of all key pairs declared in channel
+   * @throws IOException In case there is a problem reading channel.
+   */
+  public List<KeyPair> read(
+      final ReadableByteChannel channel
+  ) throws IOException, GeneralSecurityException {
+    return read(channel, null);
+  }
+
+  /**
+   * Same as `read(ReadableByteChannel)`, for encrypted content.
+   *
+   * @param channel    Channel with OpenSSH file content
+   * @param passphrase Passphrase to decrypt content
+   * @return List of all key pairs declared in channel
+   * @throws IOException In case there is a problem reading channel.
+   */
+  public List<KeyPair> read(
+      final ReadableByteChannel channel,
+      final String passphrase
+  ) throws IOException, GeneralSecurityException {
+    return readDecoded(
+        OpenSSHKeyFileParser.readChannelDecoded(channel),
+        toBytes(passphrase)
+    );
+  }
+
+  /**
+   * Reads OpenSSH file content from a buffer, between its position and limit.
+   * Buffer position is not changed.
+   *
+   * @param content OpenSSH file content, either armored (as written by
+   *                `ssh-keygen`) or already Base64 decoded
+   * @return List of all key pairs declared in buffer
+   */
+  public List<KeyPair> read(
+      final ByteBuffer content
+  ) throws GeneralSecurityException {
+    return read(content, null);
+  }
+
+  /**
+   * Same as `read(ByteBuffer)`, for encrypted content.
+   *
+   * @param content    OpenSSH file content
+   * @param passphrase Passphrase to decrypt content
+   * @return List of all key pairs declared in buffer
+   */
+  public List<KeyPair> read(
+      final ByteBuffer content,
+      final String passphrase
+  ) throws GeneralSecurityException {
+    return readDecoded(
+        OpenSSHKeyFileParser.decode(content.duplicate()),
+        toBytes(passphrase)
+    );
+  }
+
+  /**
+   * Same as `readFile(Path, String)`, with passphrase as bytes (for
+   * instance, from a char[] encoded by caller), so caller can wipe it after
+   * use. File cache, if any, is not used.
+   *
+   * @param filePath   Path to OpenSSH key file
+   * @param passphrase Passphrase bytes, or null
+   * @return List of all key pairs declared inside specified file
+   * @throws RejectedExecutionException In case a KDFGovernor is installed in
+   *                                    BCryptKDF and it does not admit
+   *                                    decryption (overload)
+   */
+  public List<KeyPair> decryptFile(
+      final Path filePath,
+      final byte[] passphrase
+  ) throws IOException, GeneralSecurityException {
+    return readDecoded(
+        ByteBuffer.wrap(OpenSSHKeyFileParser.readFileBytesDecoded(filePath)),
+        passphrase
+    );
+  }
+
+  /**
+   * Same as `read(ByteBuffer, String)`, with passphrase as bytes, so caller
+   * can wipe it after use. Buffer position is not changed.
+   *
+   * @param content    OpenSSH file content
+   * @param passphrase Passphrase bytes, or null
+   * @return List of all key pairs declared in buffer
+   */
+  public List<KeyPair> decrypt(
+      final ByteBuffer content,
+      final byte[] passphrase
+  ) throws GeneralSecurityException {
+    return readDecoded(
+        OpenSSHKeyFileParser.decode(content.duplicate()),
+        passphrase
+    );
+  }
+
   /**
    * Process OpenSSH file bytes and returns its multiple key pairs.
    *
@@ -93,23 +325,79 @@ public class OpenSSHKeyReader {
       final byte[] decodedBytes,
       final String passphrase
   ) throws GeneralSecurityException {
-    final ByteBuffer buf = ByteBuffer.wrap(decodedBytes);
-    final String authMagic = ByteBufferUtils
-        .readNextBytesAsString(buf, AUTH_MAGIC.length());
+    return readDecoded(ByteBuffer.wrap(decodedBytes), toBytes(passphrase));
+  }
 
-    if (!AUTH_MAGIC.equals(authMagic)) {
-      throw new IllegalArgumentException("OpenSSH version does not match: " +
-          "Expected " + AUTH_MAGIC + " | Found " + authMagic);
-    }
+  /**
+   * Reads only public keys section of an OpenSSH file. Private keys section
+   * is not decrypted, so no passphrase is needed and KDF does not run.
+   *
+   * @param filePath Path to OpenSSH key file
+   * @return List of all public keys declared inside specified file, in the
+   * same order `readFile()` returns key pairs
+   * @throws IOException In case there is a problem reading file.
+   */
+  public List<PublicKey> readFilePublicKeys(
+      final Path filePath
+  ) throws IOException, GeneralSecurityException {
+    return readDecodedPublicKeys(
+        ByteBuffer.wrap(OpenSSHKeyFileParser.readFileBytesDecoded(filePath))
+    );
+  }
 
-    // Gets \0 terminator from OpenSSH version AUTH_MAGIC header
-    // This is the only string with this terminator in this file
-    if (buf.get() != '\0') {
-      throw new IllegalBlockSizeException(
-          "Terminator \\0 for AUTH_MAGIC not found"
-      );
+  /**
+   * Same as `readFilePublicKeys(Path)`, for content already in memory.
+   * Buffer position is not changed.
+   *
+   * @param content OpenSSH file content, either armored (as written by
+   *                `ssh-keygen`) or already Base64 decoded
+   * @return List of all public keys declared in buffer
+   */
+  public List<PublicKey> readPublicKeys(
+      final ByteBuffer content
+  ) throws GeneralSecurityException {
+    return readDecodedPublicKeys(
+        OpenSSHKeyFileParser.decode(content.duplicate())
+    );
+  }
+
+  private List<PublicKey> readDecodedPublicKeys(
+      final ByteBuffer buf
+  ) throws GeneralSecurityException {
+    readAuthMagic(buf);
+
+    // Cipher name, KDF name and KDF options
+    ByteBufferUtils.readStringBytes(buf);
+    ByteBufferUtils.readStringBytes(buf);
+    ByteBufferUtils.readStringBytes(buf);
+
+    final int numberKeys = buf.getInt();
+
+    return readPublicKeys(
+        ByteBufferUtils.readMultipleStringsAsBytes(buf, numberKeys)
+    );
+  }
+
+  private List<KeyPair> readDecoded(
+      final ByteBuffer buf,
+      final byte[] passphrase
+  ) throws GeneralSecurityException {
+    final List<OpenSSHKeyEntry> entries = readDecodedEntries(buf, passphrase);
+    final List<KeyPair> keyPairs = new ArrayList<>(entries.size());
+
+    for (final OpenSSHKeyEntry entry : entries) {
+      keyPairs.add(entry.keyPair);
     }
 
+    return keyPairs;
+  }
+
+  private List<OpenSSHKeyEntry> readDecodedEntries(
+      final ByteBuffer buf,
+      final byte[] passphrase
+  ) throws GeneralSecurityException {
+    readAuthMagic(buf);
+
     final OpenSSHCipher cipher = OpenSSHCipher
         .getFromAlgorithmString(ByteBufferUtils.readString(buf));
 
@@ -133,17 +421,50 @@ public class OpenSSHKeyReader {
         kdfType.kdf
     );
 
+    final List<String> comments = new ArrayList<>(numberKeys);
     final List<PrivateKey> privateKeys =
-        readPrivateKeys(decryptedKeys, numberKeys);
+        readPrivateKeys(decryptedKeys, publicKeys, comments);
+
+    return matchPublicAndPrivateKeys(publicKeys, privateKeys, comments);
+  }
+
+  /**
+   * String passphrases are read with `getBytes()`, as documented on
+   * `readFile()`.
+   */
+  /**
+   * Passphrase bytes as every String passphrase is read, with `getBytes()`.
+   */
+  static byte[] toBytes(final String passphrase) {
+    return passphrase == null ? null : passphrase.getBytes();
+  }
+
+  private void readAuthMagic(
+      final ByteBuffer buf
+  ) throws IllegalBlockSizeException {
+    final String authMagic = ByteBufferUtils
+        .readNextBytesAsString(buf, AUTH_MAGIC.length());
+
+    if (!AUTH_MAGIC.equals(authMagic)) {
+      throw new IllegalArgumentException("OpenSSH version does not match: " +
+          "Expected " + AUTH_MAGIC + " | Found " + authMagic);
+    }
 
-    return matchPublicAndPrivateKeys(publicKeys, privateKeys);
+    // Gets \0 terminator from OpenSSH version AUTH_MAGIC header
+    // This is the only string with this terminator in this file
+    if (buf.get() != '\0') {
+      throw new IllegalBlockSizeException(
+          "Terminator \\0 for AUTH_MAGIC not found"
+      );
+    }
   }
 
-  private List<KeyPair> matchPublicAndPrivateKeys(
+  private List<OpenSSHKeyEntry> matchPublicAndPrivateKeys(
       final List<PublicKey> publicKeys,
-      final List<PrivateKey> privateKeys
+      final List<PrivateKey> privateKeys,
+      final List<String> comments
   ) {
-    final List<KeyPair> keyPairs = new ArrayList<>(publicKeys.size());
+    final List<OpenSSHKeyEntry> entries = new ArrayList<>(publicKeys.size());
 
     if (publicKeys.size() != privateKeys.size()) {
       throw new IllegalStateException(
@@ -152,10 +473,13 @@ public class OpenSSHKeyReader {
     }
 
     for (int idx = 0; idx < publicKeys.size(); idx++) {
-      keyPairs.add(new KeyPair(publicKeys.get(idx), privateKeys.get(idx)));
+      entries.add(new OpenSSHKeyEntry(
+          new KeyPair(publicKeys.get(idx), privateKeys.get(idx)),
+          comments.get(idx)
+      ));
     }
 
-    return keyPairs;
+    return entries;
   }
 
   private List<PublicKey> readPublicKeys(
@@ -170,7 +494,27 @@ public class OpenSSHKeyReader {
     return publicKeys;
   }
 
-  private PublicKey readPublicKey(
+  /**
+   * Reads a single public key blob, in the same format OpenSSH writes it on
+   * public key section of private key files, `.pub` files (after Base64
+   * decoding) and certificates signature key field.
+   *
+   * @param keyBytes Public key blob, starting with key type string
+   * @return Public key
+   */
+  public PublicKey readPublicKey(
+      final byte[] keyBytes
+  ) throws InvalidKeySpecException {
+    final OpenSSHKeyInterner currentKeyInterner = keyInterner;
+
+    if (currentKeyInterner == null) {
+      return buildPublicKey(keyBytes);
+    }
+
+    return currentKeyInterner.internPublicKey(keyBytes, this::buildPublicKey);
+  }
+
+  private PublicKey buildPublicKey(
       final byte[] keyBytes
   ) throws InvalidKeySpecException {
     final ByteBuffer buf = ByteBuffer.wrap(keyBytes);
@@ -181,10 +525,21 @@ public class OpenSSHKeyReader {
         .readPublicKey(ByteBufferUtils.readStringBytes(buf));
   }
 
+  /**
+   * Private keys are never interned: each read gets its own instances, so a
+   * caller wiping its key material does not affect anyone else. Ed25519 ones
+   * still reuse the (interned) public point.
+   *
+   * @param publicKeys Keys from public section. Each one is handed to its
+   *                   private key reader, which may reuse it
+   * @param comments   Receives each key comment, in the same order as keys
+   */
   private List<PrivateKey> readPrivateKeys(
       final byte[] decryptedKeysBytes,
-      final int numKeys
+      final List<PublicKey> publicKeys,
+      final List<String> comments
   ) throws InvalidKeySpecException {
+    final int numKeys = publicKeys.size();
     final List<PrivateKey> privateKeys = new ArrayList<>(numKeys);
     final ByteBuffer buf = ByteBuffer.wrap(decryptedKeysBytes);
 
@@ -197,7 +552,10 @@ public class OpenSSHKeyReader {
     for (int idx = 0; idx < numKeys; idx++) {
       final OpenSSHAsymmetricKeyType keyType = OpenSSHAsymmetricKeyType
           .getFromTypeNameString(ByteBufferUtils.readString(buf));
-      privateKeys.add(keyType.keyReader.readPrivateKey(buf));
+
+      privateKeys.add(keyType.keyReader
+          .readPrivateKey(buf, publicKeys.get(idx), checkPublicKey));
+      comments.add(ByteBufferUtils.readString(buf));
     }
 
     return privateKeys;
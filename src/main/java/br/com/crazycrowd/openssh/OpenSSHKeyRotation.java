@@ -0,0 +1,199 @@
+package br.com.crazycrowd.openssh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Re-encrypts key files under a new passphrase, cipher or KDF rounds, many
+ * files at a time.
+ * <p>
+ * Rotating a file costs two KDF runs (decrypt and encrypt), so this work is
+ * CPU bound: files are spread over one thread per available processor by
+ * default, matching KDFGovernor default permits. Key comments are kept.
+ * <p>
+ * Each file is written to a temporary file in the same directory, with the
+ * original file permissions, and then atomically moved over the original.
+ * A file that fails is left as it was.
+ */
+public class OpenSSHKeyRotation implements AutoCloseable {
+
+  private final ExecutorService executor;
+
+  public OpenSSHKeyRotation() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public OpenSSHKeyRotation(final int threads) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ThreadFactory threadFactory = runnable -> {
+      final Thread thread = new Thread(
+          runnable,
+          "openssh-key-rotation-" + threadCount.incrementAndGet()
+      );
+      thread.setDaemon(true);
+      return thread;
+    };
+
+    this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+  }
+
+  /**
+   * Rotates every private key file directly inside a directory (not
+   * recursive). `.pub` files are not read, as public keys do not change.
+   *
+   * @param directory     Directory with key files
+   * @param oldPassphrase Current passphrase, or null for unencrypted keys
+   * @param newOptions    How keys should be written
+   */
+  public OpenSSHKeyRotationResult rotateDirectory(
+      final Path directory,
+      final String oldPassphrase,
+      final OpenSSHKeyWriteOptions newOptions
+  ) throws IOException {
+    final List<Path> files;
+
+    try (Stream<Path> list = Files.list(directory)) {
+      files = list
+          .filter(Files::isRegularFile)
+          .filter(file -> !file.getFileName().toString().endsWith(".pub"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    return rotateFiles(files, oldPassphrase, newOptions);
+  }
+
+  /**
+   * If calling thread is interrupted while waiting, pending rotations are
+   * cancelled and their files reported as failed with the
+   * InterruptedException, and thread interrupt flag is kept set.
+   *
+   * @param files         Key files. Files that are not OpenSSH private keys
+   *                      are skipped
+   * @param oldPassphrase Current passphrase, or null for unencrypted keys
+   * @param newOptions    How keys should be written
+   */
+  public OpenSSHKeyRotationResult rotateFiles(
+      final List<Path> files,
+      final String oldPassphrase,
+      final OpenSSHKeyWriteOptions newOptions
+  ) {
+    final List<Future<Boolean>> futures = new ArrayList<>(files.size());
+
+    for (final Path file : files) {
+      futures.add(executor.submit(
+          () -> rotateFile(file, oldPassphrase, newOptions)
+      ));
+    }
+
+    final List<Path> rotated = new ArrayList<>();
+    final List<Path> skipped = new ArrayList<>();
+    final Map<Path, Exception> failed = new LinkedHashMap<>();
+    InterruptedException interruption = null;
+
+    for (int idx = 0; idx < files.size(); idx++) {
+      final Path file = files.get(idx);
+      final Future<Boolean> future = futures.get(idx);
+
+      // Once interrupted, only files already done are reported as such
+      if (interruption != null && (future.isCancelled() || !future.isDone())) {
+        failed.put(file, interruption);
+        continue;
+      }
+
+      try {
+        if (future.get()) {
+          rotated.add(file);
+        } else {
+          skipped.add(file);
+        }
+      } catch (final ExecutionException e) {
+        failed.put(file, e.getCause() instanceof Exception
+            ? (Exception) e.getCause()
+            : e);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(pending -> pending.cancel(true));
+        interruption = e;
+        failed.put(file, e);
+      }
+    }
+
+    return new OpenSSHKeyRotationResult(
+        Collections.unmodifiableList(rotated),
+        Collections.unmodifiableList(skipped),
+        Collections.unmodifiableMap(failed)
+    );
+  }
+
+  /**
+   * @return false if file is not an OpenSSH private key
+   */
+  private boolean rotateFile(
+      final Path file,
+      final String oldPassphrase,
+      final OpenSSHKeyWriteOptions newOptions
+  ) throws IOException, GeneralSecurityException {
+    final OpenSSHKeyReader reader = OpenSSHKeyReader.getInstance();
+
+    try {
+      // Cheap check: only public section is parsed, no KDF involved
+      reader.readFilePublicKeys(file);
+    } catch (final GeneralSecurityException | RuntimeException e) {
+      return false;
+    }
+
+    final List<OpenSSHKeyEntry> entries =
+        reader.readFileEntries(file, oldPassphrase);
+    final Path parent = file.toAbsolutePath().getParent();
+    final Path tempFile = Files.createTempFile(
+        parent,
+        "." + file.getFileName(),
+        ".tmp"
+    );
+
+    try {
+      OpenSSHKeyWriter.getInstance().writeFile(tempFile, entries, newOptions);
+
+      if (Files.getFileStore(parent).supportsFileAttributeView("posix")) {
+        Files.setPosixFilePermissions(
+            tempFile,
+            Files.getPosixFilePermissions(file)
+        );
+      }
+
+      Files.move(
+          tempFile,
+          file,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+      );
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+
+    return true;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+}
@@ -0,0 +1,36 @@
+package br.com.crazycrowd.openssh;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of an OpenSSHKeyRotation run. Files keep the order they were
+ * given (or listed) in.
+ */
+public class OpenSSHKeyRotationResult {
+
+  public final List<Path> rotated;
+
+  /**
+   * Files that are not OpenSSH private keys. They were not touched
+   */
+  public final List<Path> skipped;
+
+  /**
+   * Key files that could not be rotated (wrong passphrase, unsupported key
+   * type or cipher, IO errors). They were not touched
+   */
+  public final Map<Path, Exception> failed;
+
+  public OpenSSHKeyRotationResult(
+      final List<Path> rotated,
+      final List<Path> skipped,
+      final Map<Path, Exception> failed
+  ) {
+    this.rotated = rotated;
+    this.skipped = skipped;
+    this.failed = failed;
+  }
+
+}
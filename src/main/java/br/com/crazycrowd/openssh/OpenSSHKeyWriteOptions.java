@@ -0,0 +1,108 @@
+package br.com.crazycrowd.openssh;
+
+import br.com.crazycrowd.openssh.decrypter.OpenSSHCipher;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFType;
+
+import java.security.SecureRandom;
+
+/**
+ * How OpenSSHKeyWriter protects private keys. Use `unencrypted()` or
+ * `encrypted()` for the same defaults `ssh-keygen` uses.
+ */
+public class OpenSSHKeyWriteOptions {
+
+  /**
+   * Same default as `ssh-keygen -a`
+   */
+  public static final int DEFAULT_ROUNDS = 16;
+  public static final int SALT_SIZE = 16;
+
+  private static final SecureRandom random = new SecureRandom();
+
+  public final OpenSSHCipher cipher;
+  public final OpenSSHKDFType kdfType;
+  public final int rounds;
+  public final String passphrase;
+
+  /**
+   * @param cipher     Cipher used on private section. Only ciphers with an
+   *                   encrypter are supported
+   * @param kdfType    KDF used to derive cipher key from passphrase
+   * @param rounds     KDF rounds. Ignored when KDF is NONE
+   * @param passphrase Passphrase, or null when cipher is NONE
+   */
+  public OpenSSHKeyWriteOptions(
+      final OpenSSHCipher cipher,
+      final OpenSSHKDFType kdfType,
+      final int rounds,
+      final String passphrase
+  ) {
+    if ((cipher == OpenSSHCipher.NONE) != (kdfType == OpenSSHKDFType.NONE)) {
+      throw new IllegalArgumentException(
+          "Cipher and KDF must be both none or both set: " +
+              cipher.algorithm + " | " + kdfType.kdfName
+      );
+    }
+
+    if (kdfType != OpenSSHKDFType.NONE && rounds < 1) {
+      throw new IllegalArgumentException(
+          "KDF rounds must be positive: " + rounds
+      );
+    }
+
+    if (cipher != OpenSSHCipher.NONE && passphrase == null) {
+      throw new IllegalArgumentException(
+          "Passphrase is required for cipher " + cipher.algorithm
+      );
+    }
+
+    this.cipher = cipher;
+    this.kdfType = kdfType;
+    this.rounds = rounds;
+    this.passphrase = passphrase;
+  }
+
+  public static OpenSSHKeyWriteOptions unencrypted() {
+    return new OpenSSHKeyWriteOptions(
+        OpenSSHCipher.NONE,
+        OpenSSHKDFType.NONE,
+        0,
+        null
+    );
+  }
+
+  /**
+   * aes256-ctr and bcrypt, as `ssh-keygen` does.
+   */
+  public static OpenSSHKeyWriteOptions encrypted(final String passphrase) {
+    return encrypted(passphrase, DEFAULT_ROUNDS);
+  }
+
+  public static OpenSSHKeyWriteOptions encrypted(
+      final String passphrase,
+      final int rounds
+  ) {
+    return new OpenSSHKeyWriteOptions(
+        OpenSSHCipher.AES_256_CTR,
+        OpenSSHKDFType.BCRYPT,
+        rounds,
+        passphrase
+    );
+  }
+
+  /**
+   * @return KDF options with a fresh random salt, or null when KDF is NONE
+   */
+  OpenSSHKDFOptions newKdfOptions() {
+    if (kdfType == OpenSSHKDFType.NONE) {
+      return null;
+    }
+
+    final byte[] salt = new byte[SALT_SIZE];
+    random.nextBytes(salt);
+
+    return new OpenSSHKDFOptions(salt, rounds);
+  }
+
+}
@@ -0,0 +1,49 @@
+package br.com.crazycrowd.openssh;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Keyed digest of passphrases, for caches that must tell passphrases apart
+ * without keeping them. It is an HMAC-SHA256 under a random key generated
+ * per instance: a plain digest found in a heap dump would be a fast hash to
+ * brute force, while this one is useless without that key.
+ */
+public class PassphraseMac {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final SecretKey secret;
+
+  public PassphraseMac() {
+    final byte[] secretBytes = new byte[32];
+    new SecureRandom().nextBytes(secretBytes);
+
+    this.secret = new SecretKeySpec(secretBytes, ALGORITHM);
+  }
+
+  /**
+   * @param passphrase Passphrase bytes, or null
+   * @return Passphrase MAC, or an empty array for null passphrase, so it
+   * never matches a real one
+   */
+  public byte[] mac(final byte[] passphrase) {
+    if (passphrase == null) {
+      return new byte[0];
+    }
+
+    try {
+      final Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(secret);
+
+      return mac.doFinal(passphrase);
+    } catch (final GeneralSecurityException e) {
+      // Every Java platform is required to support HmacSHA256
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
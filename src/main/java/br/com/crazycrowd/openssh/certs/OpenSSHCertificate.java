@@ -0,0 +1,112 @@
+package br.com.crazycrowd.openssh.certs;
+
+import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenSSH certificate fields, as described in PROTOCOL.certkeys. Use
+ * `OpenSSHCertificateReader` to build it and `OpenSSHCertificateVerifier` to
+ * check its CA signature.
+ * <p>
+ * `validAfter` and `validBefore` are uint64 on the wire, so they are kept as
+ * read. Use `isValidAt()` instead of comparing them directly, as "forever" is
+ * written as 0xFFFFFFFFFFFFFFFF, which is negative as a Java long.
+ */
+public class OpenSSHCertificate {
+
+  public final OpenSSHAsymmetricKeyType keyType;
+  public final byte[] nonce;
+  public final PublicKey publicKey;
+  public final long serial;
+  public final OpenSSHCertificateType type;
+  public final String keyId;
+  public final List<String> validPrincipals;
+  public final long validAfter;
+  public final long validBefore;
+  public final Map<String, String> criticalOptions;
+  public final Map<String, String> extensions;
+
+  /**
+   * CA public key blob, readable with `OpenSSHKeyReader.readPublicKey()`
+   */
+  public final byte[] signatureKey;
+
+  /**
+   * CA signature blob: signature type string followed by signature bytes
+   */
+  public final byte[] signature;
+
+  /**
+   * Certificate bytes covered by CA signature: everything up to, and not
+   * including, signature field
+   */
+  public final byte[] signedBytes;
+
+  /**
+   * Whole certificate blob, as read
+   */
+  public final byte[] encoded;
+
+  public OpenSSHCertificate(
+      final OpenSSHAsymmetricKeyType keyType,
+      final byte[] nonce,
+      final PublicKey publicKey,
+      final long serial,
+      final OpenSSHCertificateType type,
+      final String keyId,
+      final List<String> validPrincipals,
+      final long validAfter,
+      final long validBefore,
+      final Map<String, String> criticalOptions,
+      final Map<String, String> extensions,
+      final byte[] signatureKey,
+      final byte[] signature,
+      final byte[] signedBytes,
+      final byte[] encoded
+  ) {
+    this.keyType = keyType;
+    this.nonce = nonce;
+    this.publicKey = publicKey;
+    this.serial = serial;
+    this.type = type;
+    this.keyId = keyId;
+    this.validPrincipals = validPrincipals;
+    this.validAfter = validAfter;
+    this.validBefore = validBefore;
+    this.criticalOptions = criticalOptions;
+    this.extensions = extensions;
+    this.signatureKey = signatureKey;
+    this.signature = signature;
+    this.signedBytes = signedBytes;
+    this.encoded = encoded;
+  }
+
+  /**
+   * Checks certificate validity interval the same way OpenSSH does: `time`
+   * must be at or after `validAfter` and before `validBefore`.
+   *
+   * @param time Instant to check
+   * @return true if certificate is valid at specified time
+   */
+  public boolean isValidAt(final Instant time) {
+    final long seconds = time.getEpochSecond();
+
+    return Long.compareUnsigned(seconds, validAfter) >= 0 &&
+        Long.compareUnsigned(seconds, validBefore) < 0;
+  }
+
+  /**
+   * An empty principals list means certificate is valid for any principal.
+   *
+   * @param principal User or host name to check
+   * @return true if certificate is valid for specified principal
+   */
+  public boolean isValidFor(final String principal) {
+    return validPrincipals.isEmpty() || validPrincipals.contains(principal);
+  }
+
+}
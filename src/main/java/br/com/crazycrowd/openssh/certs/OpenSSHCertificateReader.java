@@ -0,0 +1,213 @@
+package br.com.crazycrowd.openssh.certs;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads `*-cert-v01@openssh.com` certificates. Check PROTOCOL.certkeys in
+ * OpenSSH repo to understand this format.
+ * <p>
+ * Certified key fields layout depends on key type (Ed25519 has a single
+ * string, RSA has two mpints, and so on). Only Ed25519 layout is read, so
+ * certificates of other key types are rejected with
+ * UnsupportedOperationException.
+ */
+public class OpenSSHCertificateReader {
+
+  private static final OpenSSHCertificateReader certificateReader =
+      new OpenSSHCertificateReader();
+  private static final String CERT_SUFFIX = "-cert-v01@openssh.com";
+
+  /**
+   * Singleton class. Use `getInstance()`.
+   */
+  private OpenSSHCertificateReader() {
+  }
+
+  public static OpenSSHCertificateReader getInstance() {
+    return certificateReader;
+  }
+
+  /**
+   * Reads an OpenSSH certificate file, like the `id_ed25519-cert.pub` file
+   * written by `ssh-keygen -s`.
+   *
+   * @param filePath Path to OpenSSH certificate file
+   * @return Certificate declared in first line of file
+   * @throws IOException In case there is a problem reading file.
+   */
+  public OpenSSHCertificate readFile(
+      final Path filePath
+  ) throws IOException, InvalidKeySpecException {
+    final List<String> lines = Files.readAllLines(filePath);
+
+    if (lines.isEmpty()) {
+      throw new IllegalArgumentException(
+          "OpenSSH certificate file is empty: " + filePath
+      );
+    }
+
+    // Line format: <key type> <base64 certificate> [comment]
+    final String[] fields = lines.get(0).trim().split("\\s+");
+
+    if (fields.length < 2) {
+      throw new IllegalArgumentException(
+          "OpenSSH certificate line malformed in file " + filePath
+      );
+    }
+
+    return readBytes(Base64.getDecoder().decode(fields[1]));
+  }
+
+  /**
+   * Process OpenSSH certificate bytes.
+   *
+   * @param certificateBytes Certificate blob, already Base64 decoded.
+   * @return Certificate
+   */
+  public OpenSSHCertificate readBytes(
+      final byte[] certificateBytes
+  ) throws InvalidKeySpecException {
+    final ByteBuffer buf = ByteBuffer.wrap(certificateBytes);
+
+    final String certTypeName = ByteBufferUtils.readString(buf);
+
+    if (!certTypeName.endsWith(CERT_SUFFIX)) {
+      throw new IllegalArgumentException(
+          "Not an OpenSSH certificate type: " + certTypeName
+      );
+    }
+
+    // Fails for unknown certificate types
+    OpenSSHAsymmetricKeyType.getFromTypeNameString(certTypeName);
+
+    final OpenSSHAsymmetricKeyType keyType = OpenSSHAsymmetricKeyType
+        .getFromTypeNameString(
+            certTypeName.substring(
+                0,
+                certTypeName.length() - CERT_SUFFIX.length()
+            )
+        );
+
+    final byte[] nonce = ByteBufferUtils.readStringBytes(buf);
+    final PublicKey publicKey = readCertifiedKey(keyType, buf);
+    final long serial = buf.getLong();
+    final OpenSSHCertificateType type =
+        OpenSSHCertificateType.getFromCode(buf.getInt());
+    final String keyId = ByteBufferUtils.readString(buf);
+    final List<String> validPrincipals =
+        readPrincipals(ByteBufferUtils.readStringBytes(buf));
+    final long validAfter = buf.getLong();
+    final long validBefore = buf.getLong();
+    final Map<String, String> criticalOptions =
+        readOptions(ByteBufferUtils.readStringBytes(buf));
+    final Map<String, String> extensions =
+        readOptions(ByteBufferUtils.readStringBytes(buf));
+
+    // Reserved
+    ByteBufferUtils.readStringBytes(buf);
+
+    final byte[] signatureKey = ByteBufferUtils.readStringBytes(buf);
+    final byte[] signedBytes =
+        Arrays.copyOfRange(certificateBytes, 0, buf.position());
+    final byte[] signature = ByteBufferUtils.readStringBytes(buf);
+
+    if (buf.hasRemaining()) {
+      throw new IllegalArgumentException(
+          "Trailing bytes after OpenSSH certificate signature"
+      );
+    }
+
+    return new OpenSSHCertificate(
+        keyType,
+        nonce,
+        publicKey,
+        serial,
+        type,
+        keyId,
+        validPrincipals,
+        validAfter,
+        validBefore,
+        criticalOptions,
+        extensions,
+        signatureKey,
+        signature,
+        signedBytes,
+        certificateBytes
+    );
+  }
+
+  /**
+   * Ed25519 certified key is a single `string pk`.
+   */
+  private PublicKey readCertifiedKey(
+      final OpenSSHAsymmetricKeyType keyType,
+      final ByteBuffer buf
+  ) throws InvalidKeySpecException {
+    if (keyType != OpenSSHAsymmetricKeyType.ED25519) {
+      throw new UnsupportedOperationException(
+          keyType.typeName + " certificates not supported"
+      );
+    }
+
+    // Rebuilt as a plain key blob, so certified key is interned as well
+    return OpenSSHKeyReader.getInstance().readPublicKey(
+        new ByteArrayWriter()
+            .writeString(keyType.typeName)
+            .writeString(ByteBufferUtils.readStringBytes(buf))
+            .toByteArray()
+    );
+  }
+
+  private List<String> readPrincipals(final byte[] principalsBytes) {
+    final ByteBuffer buf = ByteBuffer.wrap(principalsBytes);
+    final List<String> principals = new ArrayList<>();
+
+    while (buf.hasRemaining()) {
+      principals.add(ByteBufferUtils.readString(buf));
+    }
+
+    return Collections.unmodifiableList(principals);
+  }
+
+  /**
+   * Critical options and extensions are a sequence of name and data
+   * strings. When not empty, data is itself a string (so a string inside a
+   * string), which is unwrapped here. Options without data are mapped to an
+   * empty string.
+   */
+  private Map<String, String> readOptions(final byte[] optionsBytes) {
+    final ByteBuffer buf = ByteBuffer.wrap(optionsBytes);
+    final Map<String, String> options = new LinkedHashMap<>();
+
+    while (buf.hasRemaining()) {
+      final String name = ByteBufferUtils.readString(buf);
+      final ByteBuffer data =
+          ByteBuffer.wrap(ByteBufferUtils.readStringBytes(buf));
+
+      options.put(
+          name,
+          data.hasRemaining() ? ByteBufferUtils.readString(data) : ""
+      );
+    }
+
+    return Collections.unmodifiableMap(options);
+  }
+
+}
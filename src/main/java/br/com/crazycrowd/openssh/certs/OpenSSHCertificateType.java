@@ -0,0 +1,41 @@
+package br.com.crazycrowd.openssh.certs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Extracted from PROTOCOL.certkeys file in OpenSSH repo.
+ */
+public enum OpenSSHCertificateType {
+
+  USER(1),
+  HOST(2);
+
+  public final int code;
+  private static final Map<Integer, OpenSSHCertificateType> codeToEnumMap;
+
+  OpenSSHCertificateType(final int code) {
+    this.code = code;
+  }
+
+  static {
+    codeToEnumMap = new HashMap<>();
+
+    for (final OpenSSHCertificateType certificateType : values()) {
+      codeToEnumMap.put(certificateType.code, certificateType);
+    }
+  }
+
+  public static OpenSSHCertificateType getFromCode(final int code) {
+    final OpenSSHCertificateType certificateType = codeToEnumMap.get(code);
+
+    if (certificateType == null) {
+      throw new RuntimeException(
+          "OpenSSH certificate type not found for code " + code
+      );
+    }
+
+    return certificateType;
+  }
+
+}
@@ -0,0 +1,158 @@
+package br.com.crazycrowd.openssh.certs;
+
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.LruCache;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.signature.OpenSSHSignatureType;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies OpenSSH certificates CA signature.
+ * <p>
+ * Results are kept in a bounded LRU cache keyed by a SHA-256 digest of the
+ * bytes actually verified (signed bytes and signature) and CA public key
+ * blob, so the same certificate presented again (a short lived user
+ * certificate on every multiplexed session, for instance) costs a digest
+ * instead of a signature verification. Only the signature is cached:
+ * validity interval and principals depend on the caller and are checked with
+ * `OpenSSHCertificate` methods.
+ */
+public class OpenSSHCertificateVerifier {
+
+  public static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private final LruCache<ByteBuffer, Boolean> verificationCache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  public OpenSSHCertificateVerifier() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize Max number of verification results kept in memory
+   */
+  public OpenSSHCertificateVerifier(final int cacheSize) {
+    this.verificationCache = new LruCache<>(cacheSize);
+  }
+
+  /**
+   * Checks certificate is signed by the CA key embedded in it. Use this only
+   * if CA key is checked against a trusted list somewhere else; otherwise,
+   * use `verify(certificate, trustedCaKey)`.
+   *
+   * @param certificate Certificate to check
+   * @return true if CA signature is valid
+   */
+  public boolean verify(
+      final OpenSSHCertificate certificate
+  ) throws GeneralSecurityException {
+    return verify(certificate, certificate.signatureKey);
+  }
+
+  /**
+   * Checks certificate is signed by the specified CA.
+   *
+   * @param certificate  Certificate to check
+   * @param trustedCaKey Trusted CA public key blob, as found in a `.pub` file
+   *                     (after Base64 decoding)
+   * @return true if certificate was signed by specified CA and signature is
+   * valid
+   */
+  public boolean verify(
+      final OpenSSHCertificate certificate,
+      final byte[] trustedCaKey
+  ) throws GeneralSecurityException {
+    if (!MessageDigest.isEqual(certificate.signatureKey, trustedCaKey)) {
+      return false;
+    }
+
+    final ByteBuffer cacheKey = buildCacheKey(certificate, trustedCaKey);
+    final Boolean cachedResult = verificationCache.get(cacheKey);
+
+    if (cachedResult != null) {
+      hitCount.incrementAndGet();
+      return cachedResult;
+    }
+
+    missCount.incrementAndGet();
+    final boolean result = verifySignature(certificate, trustedCaKey);
+    verificationCache.put(cacheKey, result);
+
+    return result;
+  }
+
+  /**
+   * Drops all cached verification results.
+   */
+  public void clearCache() {
+    verificationCache.clear();
+  }
+
+  /**
+   * @return Number of verifications answered from cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return Number of verifications that checked signature
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private boolean verifySignature(
+      final OpenSSHCertificate certificate,
+      final byte[] caKey
+  ) throws GeneralSecurityException {
+    final PublicKey caPublicKey =
+        OpenSSHKeyReader.getInstance().readPublicKey(caKey);
+
+    final ByteBuffer signatureBuf = ByteBuffer.wrap(certificate.signature);
+    final OpenSSHSignatureType signatureType = OpenSSHSignatureType
+        .getFromTypeNameString(ByteBufferUtils.readString(signatureBuf));
+    final byte[] signatureBytes = ByteBufferUtils.readStringBytes(signatureBuf);
+
+    final Signature verifier = signatureType.signatureFactory.newSignature();
+    verifier.initVerify(caPublicKey);
+    verifier.update(certificate.signedBytes);
+
+    return verifier.verify(signatureBytes);
+  }
+
+  /**
+   * Digest covers exactly what `verifySignature()` reads, signed bytes length
+   * prefixed so they can not be shifted into signature, since certificate
+   * fields are caller writable and `encoded` is not checked.
+   * <p>
+   * ByteBuffer `equals()` and `hashCode()` depend on remaining content, so it
+   * is a cheap way to use byte arrays as map keys.
+   */
+  private ByteBuffer buildCacheKey(
+      final OpenSSHCertificate certificate,
+      final byte[] caKey
+  ) throws GeneralSecurityException {
+    final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    digest.update(
+        ByteBuffer.allocate(Integer.BYTES)
+            .putInt(certificate.signedBytes.length)
+            .array()
+    );
+    digest.update(certificate.signedBytes);
+    final byte[] certificateDigest = digest.digest(certificate.signature);
+
+    return ByteBuffer.allocate(certificateDigest.length + caKey.length)
+        .put(certificateDigest)
+        .put(caKey)
+        .flip();
+  }
+
+}
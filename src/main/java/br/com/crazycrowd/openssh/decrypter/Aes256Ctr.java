@@ -0,0 +1,61 @@
+package br.com.crazycrowd.openssh.decrypter;
+
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDF;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+/**
+ * Key and IV derivation shared by Aes256CtrDecrypter and Aes256CtrEncrypter.
+ */
+class Aes256Ctr {
+
+  private static final int BYTES_FOR_KEY_AND_IV = 48;
+
+  private Aes256Ctr() {
+  }
+
+  static Cipher newCipher(
+      final int mode,
+      final byte[] passphrase,
+      final OpenSSHKDFOptions kdfOptions,
+      final OpenSSHKDF kdf
+  ) throws GeneralSecurityException {
+    if (passphrase == null) {
+      throw new IllegalArgumentException("Passphrase is required for aes256-ctr");
+    }
+
+    final byte[] derivedKey = kdf.deriveKey(
+        passphrase,
+        kdfOptions.salt,
+        kdfOptions.rounds,
+        BYTES_FOR_KEY_AND_IV
+    );
+
+    final ByteBuffer keyAndIvBuffer = ByteBuffer.wrap(derivedKey);
+
+    final byte[] keyBytes = new byte[32];
+    final byte[] ivBytes = new byte[16];
+
+    keyAndIvBuffer.get(keyBytes);
+    keyAndIvBuffer.get(ivBytes);
+    Arrays.fill(derivedKey, (byte) 0);
+
+    final SecretKey secretKey = new SecretKeySpec(keyBytes, "AES");
+    final AlgorithmParameterSpec iv = new IvParameterSpec(ivBytes);
+
+    final Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+    cipher.init(mode, secretKey, iv);
+    Arrays.fill(keyBytes, (byte) 0);
+
+    return cipher;
+  }
+
+}
@@ -0,0 +1,32 @@
+package br.com.crazycrowd.openssh.decrypter;
+
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDF;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+
+public class Aes256CtrEncrypter implements OpenSSHEncrypter {
+
+  private static final Aes256CtrEncrypter encrypter = new Aes256CtrEncrypter();
+
+  private Aes256CtrEncrypter() {
+  }
+
+  @Override
+  public byte[] encrypt(
+      final byte[] plain,
+      final byte[] passphrase,
+      final OpenSSHKDFOptions kdfOptions,
+      final OpenSSHKDF kdf
+  ) throws GeneralSecurityException {
+    return Aes256Ctr
+        .newCipher(Cipher.ENCRYPT_MODE, passphrase, kdfOptions, kdf)
+        .doFinal(plain);
+  }
+
+  public static Aes256CtrEncrypter getInstance() {
+    return encrypter;
+  }
+
+}
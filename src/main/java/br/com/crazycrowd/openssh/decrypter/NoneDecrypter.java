@@ -13,7 +13,7 @@ public class NoneDecrypter implements OpenSSHDecrypter {
   @Override
   public byte[] decrypt(
       final byte[] encrypted,
-      final String passphrase,
+      final byte[] passphrase,
       final OpenSSHKDFOptions kdfOptions,
       final OpenSSHKDF kdf
   ) {
@@ -0,0 +1,27 @@
+package br.com.crazycrowd.openssh.decrypter;
+
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDF;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+
+public class NoneEncrypter implements OpenSSHEncrypter {
+
+  private static final NoneEncrypter encrypter = new NoneEncrypter();
+
+  private NoneEncrypter() {
+  }
+
+  @Override
+  public byte[] encrypt(
+      final byte[] plain,
+      final byte[] passphrase,
+      final OpenSSHKDFOptions kdfOptions,
+      final OpenSSHKDF kdf
+  ) {
+    return plain;
+  }
+
+  public static NoneEncrypter getInstance() {
+    return encrypter;
+  }
+
+}
@@ -10,34 +10,56 @@ import java.util.Map;
  */
 public enum OpenSSHCipher {
 
-  TRIPLE_DES_CBC("3des-cbc"),
-  AES_128_CBC("aes128-cbc"),
-  AES_192_CBC("aes192-cbc"),
-  AES_256_CBC("aes256-cbc"),
-  AES_128_CTR("aes128-ctr"),
-  AES_192_CTR("aes192-ctr"),
-  AES_256_CTR("aes256-ctr", Aes256CtrDecrypter.getInstance()),
-  AES_128_GCM("aes128-gcm@openssh.com"),
-  AES_256_GCM("aes256-gcm@openssh.com"),
-  ARCFOUR("arcfour"),
-  ARCFOUR_128("arcfour128"),
-  ARCFOUR_256("arcfour256"),
-  BLOW_FISH_CBC("blowfish-cbc"),
-  CAST_128_CBC("cast128-cbc"),
-  CHACHA_20_POLY_1305("chacha20-poly1305@openssh.com"),
-  NONE("none", NoneDecrypter.getInstance());
+  TRIPLE_DES_CBC("3des-cbc", 8),
+  AES_128_CBC("aes128-cbc", 16),
+  AES_192_CBC("aes192-cbc", 16),
+  AES_256_CBC("aes256-cbc", 16),
+  AES_128_CTR("aes128-ctr", 16),
+  AES_192_CTR("aes192-ctr", 16),
+  AES_256_CTR(
+      "aes256-ctr",
+      16,
+      Aes256CtrDecrypter.getInstance(),
+      Aes256CtrEncrypter.getInstance()
+  ),
+  AES_128_GCM("aes128-gcm@openssh.com", 16),
+  AES_256_GCM("aes256-gcm@openssh.com", 16),
+  ARCFOUR("arcfour", 8),
+  ARCFOUR_128("arcfour128", 8),
+  ARCFOUR_256("arcfour256", 8),
+  BLOW_FISH_CBC("blowfish-cbc", 8),
+  CAST_128_CBC("cast128-cbc", 8),
+  CHACHA_20_POLY_1305("chacha20-poly1305@openssh.com", 8),
+  NONE("none", 8, NoneDecrypter.getInstance(), NoneEncrypter.getInstance());
 
   public final String algorithm;
+  /**
+   * Private section of key files is padded to a multiple of this size
+   */
+  public final int blockSize;
   public final OpenSSHDecrypter decrypter;
+  public final OpenSSHEncrypter encrypter;
   private static final Map<String, OpenSSHCipher> algorithmToEnumMap;
 
-  OpenSSHCipher(final String algorithm) {
-    this(algorithm, new UnsupportedDecrypter(algorithm));
+  OpenSSHCipher(final String algorithm, final int blockSize) {
+    this(
+        algorithm,
+        blockSize,
+        new UnsupportedDecrypter(algorithm),
+        new UnsupportedEncrypter(algorithm)
+    );
   }
 
-  OpenSSHCipher(final String algorithm, final OpenSSHDecrypter decrypter) {
+  OpenSSHCipher(
+      final String algorithm,
+      final int blockSize,
+      final OpenSSHDecrypter decrypter,
+      final OpenSSHEncrypter encrypter
+  ) {
     this.algorithm = algorithm;
+    this.blockSize = blockSize;
     this.decrypter = decrypter;
+    this.encrypter = encrypter;
   }
 
   static {
@@ -7,9 +7,13 @@ import java.security.GeneralSecurityException;
 
 public interface OpenSSHDecrypter {
 
+  /**
+   * @param passphrase Passphrase bytes, or null for unencrypted keys. Not
+   *                   kept, so caller can wipe it afterwards
+   */
   byte[] decrypt(
       final byte[] encrypted,
-      final String passphrase,
+      final byte[] passphrase,
       final OpenSSHKDFOptions kdfOptions,
       final OpenSSHKDF kdf
   ) throws GeneralSecurityException;
@@ -0,0 +1,24 @@
+package br.com.crazycrowd.openssh.decrypter;
+
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDF;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Opposite of OpenSSHDecrypter, used when writing private key files.
+ */
+public interface OpenSSHEncrypter {
+
+  /**
+   * @param plain      Private section, already padded to cipher block size
+   * @param passphrase Passphrase bytes, or null for unencrypted keys
+   */
+  byte[] encrypt(
+      final byte[] plain,
+      final byte[] passphrase,
+      final OpenSSHKDFOptions kdfOptions,
+      final OpenSSHKDF kdf
+  ) throws GeneralSecurityException;
+
+}
@@ -16,7 +16,7 @@ public class UnsupportedDecrypter implements OpenSSHDecrypter {
   @Override
   public byte[] decrypt(
       final byte[] encrypted,
-      final String passphrase,
+      final byte[] passphrase,
       final OpenSSHKDFOptions kdfOptions,
       final OpenSSHKDF kdf
   ) {
@@ -0,0 +1,26 @@
+package br.com.crazycrowd.openssh.decrypter;
+
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDF;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFOptions;
+
+public class UnsupportedEncrypter implements OpenSSHEncrypter {
+
+  private final UnsupportedOperationException unsupportedException;
+
+  public UnsupportedEncrypter(final String cipherName) {
+    this.unsupportedException = new UnsupportedOperationException(
+        "Cipher not yet supported: " + cipherName
+    );
+  }
+
+  @Override
+  public byte[] encrypt(
+      final byte[] plain,
+      final byte[] passphrase,
+      final OpenSSHKDFOptions kdfOptions,
+      final OpenSSHKDF kdf
+  ) {
+    throw unsupportedException;
+  }
+
+}
@@ -1,5 +1,6 @@
 package br.com.crazycrowd.openssh.kdf;
 
+import br.com.crazycrowd.openssh.ByteArrayWriter;
 import br.com.crazycrowd.openssh.ByteBufferUtils;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -7,9 +8,10 @@ import java.nio.ByteBuffer;
 
 public class BCryptKDF implements OpenSSHKDF {
 
-  private static final BCrypt BCRYPT = new BCrypt();
   private static final BCryptKDF kdf = new BCryptKDF();
 
+  private volatile KDFGovernor governor;
+
   private BCryptKDF() {
   }
 
@@ -17,11 +19,51 @@ public class BCryptKDF implements OpenSSHKDF {
     return kdf;
   }
 
+  /**
+   * Installs a governor every derivation goes through, limiting how many of
+   * them run at the same time. There is none by default, so derivations run
+   * right away. Once installed, a derivation the governor does not admit
+   * fails with RejectedExecutionException, from every key reading method.
+   *
+   * @param governor Governor to use, or null to run derivations right away
+   */
+  public void setGovernor(final KDFGovernor governor) {
+    this.governor = governor;
+  }
+
+  public KDFGovernor getGovernor() {
+    return governor;
+  }
+
+  /**
+   * @throws java.util.concurrent.RejectedExecutionException In case a
+   *                                                         governor is
+   *                                                         installed and
+   *                                                         does not admit
+   *                                                         derivation
+   */
   @Override
   public byte[] deriveKey(byte[] password, byte[] salt, int rounds, int sizeInBytes) {
+    final KDFGovernor currentGovernor = governor;
+
+    if (currentGovernor == null) {
+      return pbkdf(password, salt, rounds, sizeInBytes);
+    }
+
+    return currentGovernor.run(
+        rounds,
+        () -> pbkdf(password, salt, rounds, sizeInBytes)
+    );
+  }
+
+  /**
+   * BCrypt keeps Blowfish state in instance fields, so each derivation needs
+   * its own instance to be safe to run concurrently.
+   */
+  private byte[] pbkdf(byte[] password, byte[] salt, int rounds, int sizeInBytes) {
     final byte[] derivedKey = new byte[sizeInBytes];
 
-    BCRYPT.pbkdf(password, salt, rounds, derivedKey);
+    new BCrypt().pbkdf(password, salt, rounds, derivedKey);
 
     return derivedKey;
   }
@@ -35,4 +77,12 @@ public class BCryptKDF implements OpenSSHKDF {
     return new OpenSSHKDFOptions(salt, rounds);
   }
 
+  @Override
+  public byte[] writeOptions(final OpenSSHKDFOptions kdfOptions) {
+    return new ByteArrayWriter()
+        .writeString(kdfOptions.salt)
+        .writeInt(kdfOptions.rounds)
+        .toByteArray();
+  }
+
 }
@@ -0,0 +1,304 @@
+package br.com.crazycrowd.openssh.kdf;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for CPU bound key derivations.
+ * <p>
+ * At most `permits` derivations run at the same time. Extra callers wait in
+ * a bounded queue, where derivations with fewer rounds (cheaper) go first, so
+ * a burst of expensive keys does not hold every cheap one behind it. To keep
+ * expensive derivations from starving under steady cheap load, the oldest
+ * waiter goes first once it has been bypassed `MAX_BYPASSES` times. When
+ * queue is full, or a caller waits longer than `timeout`, derivation is
+ * rejected with RejectedExecutionException instead of piling up threads: on
+ * overload, some key loads fail fast while the others keep their latency.
+ * <p>
+ * Queue depth and counters can be read at any time, for metrics.
+ */
+public class KDFGovernor {
+
+  public static final int DEFAULT_PERMITS =
+      Runtime.getRuntime().availableProcessors();
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 16 * DEFAULT_PERMITS;
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * Times oldest waiter can be bypassed by cheaper derivations before it
+   * gets next permit
+   */
+  public static final int MAX_BYPASSES = 8;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+      Comparator.<Waiter>comparingInt(waiter -> waiter.rounds)
+          .thenComparingLong(waiter -> waiter.sequence)
+  );
+  // Same waiters, in arrival order
+  private final Deque<Waiter> arrivals = new ArrayDeque<>();
+  private final int permits;
+  private final int maxQueueSize;
+  private final Duration timeout;
+
+  // Guarded by lock
+  private int availablePermits;
+  private long sequence;
+  private long completedCount;
+  private long rejectedCount;
+  private long timedOutCount;
+
+  /**
+   * One permit per available processor, up to 16 waiters per permit and 30
+   * seconds of wait.
+   */
+  public KDFGovernor() {
+    this(DEFAULT_PERMITS, DEFAULT_MAX_QUEUE_SIZE, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * @param permits      Max number of derivations running at the same time
+   * @param maxQueueSize Max number of derivations waiting for a permit
+   * @param timeout      Max time waiting for a permit, or null to wait
+   *                     forever
+   */
+  public KDFGovernor(
+      final int permits,
+      final int maxQueueSize,
+      final Duration timeout
+  ) {
+    if (permits < 1) {
+      throw new IllegalArgumentException("Permits must be positive: " + permits);
+    }
+
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException(
+          "Queue size must not be negative: " + maxQueueSize
+      );
+    }
+
+    this.permits = permits;
+    this.maxQueueSize = maxQueueSize;
+    this.timeout = timeout;
+    this.availablePermits = permits;
+  }
+
+  /**
+   * Runs a derivation once a permit is available.
+   *
+   * @param rounds     Derivation rounds, used as its cost
+   * @param derivation Key derivation
+   * @return Derivation result
+   * @throws RejectedExecutionException In case queue is full, wait timed out
+   *                                    or thread was interrupted while
+   *                                    waiting
+   */
+  public <T> T run(final int rounds, final Supplier<T> derivation) {
+    acquire(rounds);
+
+    try {
+      return derivation.get();
+    } finally {
+      release();
+    }
+  }
+
+  public int getPermits() {
+    return permits;
+  }
+
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * @return Max time waiting for a permit, or null if waiters wait forever
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  public int getActiveCount() {
+    lock.lock();
+    try {
+      return permits - availablePermits;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getQueueDepth() {
+    lock.lock();
+    try {
+      return waiters.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getCompletedCount() {
+    lock.lock();
+    try {
+      return completedCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return Derivations rejected because queue was full
+   */
+  public long getRejectedCount() {
+    lock.lock();
+    try {
+      return rejectedCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getTimedOutCount() {
+    lock.lock();
+    try {
+      return timedOutCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void acquire(final int rounds) {
+    lock.lock();
+
+    try {
+      if (availablePermits > 0 && waiters.isEmpty()) {
+        availablePermits--;
+        return;
+      }
+
+      if (waiters.size() >= maxQueueSize) {
+        rejectedCount++;
+        throw new RejectedExecutionException(
+            "KDF queue full: " + waiters.size() + " derivations waiting"
+        );
+      }
+
+      final Waiter waiter =
+          new Waiter(rounds, sequence++, lock.newCondition());
+      waiters.add(waiter);
+      arrivals.addLast(waiter);
+
+      awaitPermit(waiter);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Must be called holding lock. Permit is handed over by `release()`, which
+   * sets `granted` before signaling, so a granted waiter never goes back to
+   * the queue.
+   */
+  private void awaitPermit(final Waiter waiter) {
+    long remainingNanos = timeout == null ? 0 : timeout.toNanos();
+
+    try {
+      while (!waiter.granted) {
+        if (timeout == null) {
+          waiter.condition.await();
+        } else if (remainingNanos > 0) {
+          remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+        } else {
+          removeWaiter(waiter);
+          timedOutCount++;
+          throw new RejectedExecutionException(
+              "KDF permit not available after " + timeout
+          );
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      if (waiter.granted) {
+        releaseLocked(false);
+      } else {
+        removeWaiter(waiter);
+      }
+
+      throw new RejectedExecutionException(
+          "Interrupted while waiting for KDF permit",
+          e
+      );
+    }
+  }
+
+  private void release() {
+    lock.lock();
+    try {
+      releaseLocked(true);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void releaseLocked(final boolean completed) {
+    if (completed) {
+      completedCount++;
+    }
+
+    final Waiter oldest = arrivals.peekFirst();
+
+    if (oldest == null) {
+      availablePermits++;
+      return;
+    }
+
+    final Waiter next;
+
+    if (oldest.bypasses >= MAX_BYPASSES) {
+      next = oldest;
+    } else {
+      next = waiters.peek();
+
+      if (next != oldest) {
+        oldest.bypasses++;
+      }
+    }
+
+    removeWaiter(next);
+    next.granted = true;
+    next.condition.signal();
+  }
+
+  private void removeWaiter(final Waiter waiter) {
+    waiters.remove(waiter);
+    arrivals.remove(waiter);
+  }
+
+  private static class Waiter {
+
+    private final int rounds;
+    private final long sequence;
+    private final Condition condition;
+    private boolean granted;
+    private int bypasses;
+
+    private Waiter(
+        final int rounds,
+        final long sequence,
+        final Condition condition
+    ) {
+      this.rounds = rounds;
+      this.sequence = sequence;
+      this.condition = condition;
+    }
+
+  }
+
+}
@@ -21,4 +21,9 @@ public class NoneKDF implements OpenSSHKDF {
     return null;
   }
 
+  @Override
+  public byte[] writeOptions(final OpenSSHKDFOptions kdfOptions) {
+    return new byte[0];
+  }
+
 }
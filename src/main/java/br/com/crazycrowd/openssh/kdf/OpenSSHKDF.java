@@ -6,4 +6,12 @@ public interface OpenSSHKDF {
 
   OpenSSHKDFOptions readOptions(final byte[] kdfOptions);
 
+  /**
+   * Opposite of `readOptions()`.
+   *
+   * @param kdfOptions Options to encode, or null for KDFs without options
+   * @return Options string contents, as stored on key file header
+   */
+  byte[] writeOptions(final OpenSSHKDFOptions kdfOptions);
+
 }
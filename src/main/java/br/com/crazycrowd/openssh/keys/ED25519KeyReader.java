@@ -3,20 +3,26 @@ package br.com.crazycrowd.openssh.keys;
 import br.com.crazycrowd.openssh.ByteBufferUtils;
 import net.i2p.crypto.eddsa.EdDSAPrivateKey;
 import net.i2p.crypto.eddsa.EdDSAPublicKey;
+import net.i2p.crypto.eddsa.math.GroupElement;
 import net.i2p.crypto.eddsa.spec.EdDSANamedCurveSpec;
 import net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable;
 import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
 import net.i2p.crypto.eddsa.spec.EdDSAPublicKeySpec;
 
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 
 public class ED25519KeyReader implements OpenSSHAsymmetricKeyReader {
 
   private static final ED25519KeyReader instance = new ED25519KeyReader();
   private static final EdDSANamedCurveSpec CURVE_NAME =
       EdDSANamedCurveTable.getByName("Ed25519");
+  private static final int KEY_SIZE = 32;
 
   private ED25519KeyReader() {
   }
@@ -34,25 +40,130 @@ public class ED25519KeyReader implements OpenSSHAsymmetricKeyReader {
   }
 
   @Override
-  public PrivateKey readPrivateKey(final ByteBuffer byteBuffer) {
-    // Public key
-    ByteBufferUtils.readStringBytes(byteBuffer);
+  public PrivateKey readPrivateKey(
+      final ByteBuffer byteBuffer
+  ) throws InvalidKeySpecException {
+    return readPrivateKey(byteBuffer, null);
+  }
+
+  @Override
+  public PrivateKey readPrivateKey(
+      final ByteBuffer byteBuffer,
+      final PublicKey publicKey
+  ) throws InvalidKeySpecException {
+    return readPrivateKey(byteBuffer, publicKey, true);
+  }
+
+  /**
+   * OpenSSH stores public key, then seed followed by public key again. Seed
+   * is hashed as `EdDSAPrivateKeySpec` does, but public point is taken from
+   * public section key (or decoded from stored public key).
+   * <p>
+   * Key is always rejected unless both stored copies of public key, and the
+   * key from public section when known, are equal. That is cheap, but a
+   * corrupted seed would go unnoticed and make invalid signatures, so, when
+   * `checkPublicKey` is set, public key is also derived from seed (a scalar
+   * multiplication) and compared to stored one. All comparisons run in
+   * constant time.
+   */
+  @Override
+  public PrivateKey readPrivateKey(
+      final ByteBuffer byteBuffer,
+      final PublicKey publicKey,
+      final boolean checkPublicKey
+  ) throws InvalidKeySpecException {
+    final byte[] publicKeyBytes = ByteBufferUtils.readStringBytes(byteBuffer);
+    final byte[] privateAndPublicKeyBytes =
+        ByteBufferUtils.readStringBytes(byteBuffer);
+
+    if (privateAndPublicKeyBytes.length != 2 * KEY_SIZE) {
+      throw new InvalidKeySpecException(
+          "Ed25519 private key must have " + 2 * KEY_SIZE + " bytes: " +
+              privateAndPublicKeyBytes.length
+      );
+    }
+
+    final byte[] seed =
+        Arrays.copyOfRange(privateAndPublicKeyBytes, 0, KEY_SIZE);
+    final byte[] embeddedPublicKeyBytes = Arrays.copyOfRange(
+        privateAndPublicKeyBytes,
+        KEY_SIZE,
+        2 * KEY_SIZE
+    );
+    final EdDSAPublicKey sectionPublicKey = publicKey instanceof EdDSAPublicKey
+        ? (EdDSAPublicKey) publicKey
+        : null;
 
-    // Private + Public key bytes
-    final ByteBuffer privateAndPublicKeyBytes = ByteBuffer.wrap(
-        ByteBufferUtils.readStringBytes(byteBuffer)
+    checkStoredPublicKeys(
+        publicKeyBytes,
+        embeddedPublicKeyBytes,
+        sectionPublicKey
     );
 
-    final byte[] privateKeyBytes = new byte[32];
-    privateAndPublicKeyBytes.get(privateKeyBytes);
+    final byte[] h = hash(seed);
+    h[0] &= (byte) 248;
+    h[KEY_SIZE - 1] &= (byte) 63;
+    h[KEY_SIZE - 1] |= (byte) 64;
+    final byte[] a = Arrays.copyOfRange(h, 0, KEY_SIZE);
 
-    // Reading privateKey comment
-    ByteBufferUtils.readString(byteBuffer);
+    if (checkPublicKey) {
+      checkDerivedPublicKey(a, embeddedPublicKeyBytes);
+    }
+
+    final GroupElement publicPoint = sectionPublicKey != null
+        ? sectionPublicKey.getA()
+        : new GroupElement(CURVE_NAME.getCurve(), embeddedPublicKeyBytes);
 
     final EdDSAPrivateKeySpec keySpec =
-        new EdDSAPrivateKeySpec(privateKeyBytes, CURVE_NAME);
+        new EdDSAPrivateKeySpec(seed, h, a, publicPoint, CURVE_NAME);
 
     return new EdDSAPrivateKey(keySpec);
   }
 
+  private void checkStoredPublicKeys(
+      final byte[] publicKeyBytes,
+      final byte[] embeddedPublicKeyBytes,
+      final EdDSAPublicKey sectionPublicKey
+  ) throws InvalidKeySpecException {
+    // Non short-circuit operators, so every comparison always runs
+    final boolean matches =
+        MessageDigest.isEqual(publicKeyBytes, embeddedPublicKeyBytes) &
+            (sectionPublicKey == null || MessageDigest.isEqual(
+                embeddedPublicKeyBytes,
+                sectionPublicKey.getAbyte()
+            ));
+
+    if (!matches) {
+      throw new InvalidKeySpecException(
+          "Ed25519 private key does not match its public key"
+      );
+    }
+  }
+
+  private void checkDerivedPublicKey(
+      final byte[] a,
+      final byte[] embeddedPublicKeyBytes
+  ) throws InvalidKeySpecException {
+    final byte[] derivedPublicKeyBytes =
+        CURVE_NAME.getB().scalarMultiply(a).toByteArray();
+
+    if (!MessageDigest.isEqual(derivedPublicKeyBytes, embeddedPublicKeyBytes)) {
+      throw new InvalidKeySpecException(
+          "Ed25519 private key seed does not match its public key"
+      );
+    }
+  }
+
+  private byte[] hash(final byte[] seed) {
+    try {
+      return MessageDigest.getInstance(CURVE_NAME.getHashAlgorithm())
+          .digest(seed);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(
+          CURVE_NAME.getHashAlgorithm() + " not available",
+          e
+      );
+    }
+  }
+
 }
@@ -0,0 +1,63 @@
+package br.com.crazycrowd.openssh.keys;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import net.i2p.crypto.eddsa.EdDSAKey;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+public class ED25519KeyWriter implements OpenSSHAsymmetricKeyWriter {
+
+  private static final ED25519KeyWriter instance = new ED25519KeyWriter();
+
+  private ED25519KeyWriter() {
+  }
+
+  public static ED25519KeyWriter getInstance() {
+    return instance;
+  }
+
+  @Override
+  public boolean canWrite(final Key key) {
+    return key instanceof EdDSAKey;
+  }
+
+  @Override
+  public void writePublicKey(
+      final ByteArrayWriter writer,
+      final PublicKey publicKey
+  ) {
+    writer.writeString(((EdDSAPublicKey) publicKey).getAbyte());
+  }
+
+  /**
+   * OpenSSH stores seed followed by public key as private key field.
+   */
+  @Override
+  public void writePrivateKey(
+      final ByteArrayWriter writer,
+      final KeyPair keyPair
+  ) {
+    final byte[] publicKeyBytes =
+        ((EdDSAPublicKey) keyPair.getPublic()).getAbyte();
+    final byte[] seed = ((EdDSAPrivateKey) keyPair.getPrivate()).getSeed();
+    final byte[] privateAndPublicKeyBytes =
+        new byte[seed.length + publicKeyBytes.length];
+
+    System.arraycopy(seed, 0, privateAndPublicKeyBytes, 0, seed.length);
+    System.arraycopy(
+        publicKeyBytes,
+        0,
+        privateAndPublicKeyBytes,
+        seed.length,
+        publicKeyBytes.length
+    );
+
+    writer.writeString(publicKeyBytes);
+    writer.writeString(privateAndPublicKeyBytes);
+  }
+
+}
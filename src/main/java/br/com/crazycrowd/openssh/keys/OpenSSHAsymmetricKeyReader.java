@@ -11,7 +11,7 @@ public interface OpenSSHAsymmetricKeyReader {
 
   /**
    * Reads a private key from a buffer, right after reading key type on OpenSSH
-   * format.
+   * format. Key comment, which follows key fields, is left on buffer.
    * <p>
    * Check `The OpenSSH private key binary format` on README.md to learn more
    * about this.
@@ -23,4 +23,44 @@ public interface OpenSSHAsymmetricKeyReader {
    */
   PrivateKey readPrivateKey(final ByteBuffer byteBuffer) throws InvalidKeySpecException;
 
+  /**
+   * Same as `readPrivateKey(ByteBuffer)`, for readers that can build private
+   * key cheaper when its public key, already read from public section, is
+   * known. Default implementation ignores public key.
+   *
+   * @param byteBuffer Buffer right after keyType string on decrypted private
+   *                   key section
+   * @param publicKey  Matching key from public section
+   * @return PrivateKey
+   * @throws InvalidKeySpecException
+   */
+  default PrivateKey readPrivateKey(
+      final ByteBuffer byteBuffer,
+      final PublicKey publicKey
+  ) throws InvalidKeySpecException {
+    return readPrivateKey(byteBuffer);
+  }
+
+  /**
+   * Same as `readPrivateKey(ByteBuffer, PublicKey)`, choosing whether key is
+   * checked against the public key derived from it, which is costly for some
+   * key types. Readers check by default. Default implementation ignores
+   * `checkPublicKey`.
+   *
+   * @param byteBuffer     Buffer right after keyType string on decrypted
+   *                       private key section
+   * @param publicKey      Matching key from public section
+   * @param checkPublicKey Whether public key is derived from private key and
+   *                       compared to stored one
+   * @return PrivateKey
+   * @throws InvalidKeySpecException
+   */
+  default PrivateKey readPrivateKey(
+      final ByteBuffer byteBuffer,
+      final PublicKey publicKey,
+      final boolean checkPublicKey
+  ) throws InvalidKeySpecException {
+    return readPrivateKey(byteBuffer, publicKey);
+  }
+
 }
@@ -1,5 +1,6 @@
 package br.com.crazycrowd.openssh.keys;
 
+import java.security.Key;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,7 +20,11 @@ public enum OpenSSHAsymmetricKeyType {
   ECDSA_384_CERT("ecdsa-sha2-nistp384-cert-v01@openssh.com"),
   ECDSA_521("ecdsa-sha2-nistp521"),
   ECDSA_521_CERT("ecdsa-sha2-nistp521-cert-v01@openssh.com"),
-  ED25519("ssh-ed25519", ED25519KeyReader.getInstance()),
+  ED25519(
+      "ssh-ed25519",
+      ED25519KeyReader.getInstance(),
+      ED25519KeyWriter.getInstance()
+  ),
   ED25519_CERT("ssh-ed25519-cert-v01@openssh.com"),
   ED25519_SK("sk-ssh-ed25519@openssh.com"),
   ED25519_SK_CERT("sk-ssh-ed25519-cert-v01@openssh.com"),
@@ -35,18 +40,25 @@ public enum OpenSSHAsymmetricKeyType {
 
   public final String typeName;
   public final OpenSSHAsymmetricKeyReader keyReader;
+  public final OpenSSHAsymmetricKeyWriter keyWriter;
   private static final Map<String, OpenSSHAsymmetricKeyType> typeNameToEnumMap;
 
   OpenSSHAsymmetricKeyType(final String typeName) {
-    this(typeName, new UnsupportedKeyReader(typeName));
+    this(
+        typeName,
+        new UnsupportedKeyReader(typeName),
+        new UnsupportedKeyWriter(typeName)
+    );
   }
 
   OpenSSHAsymmetricKeyType(
       final String typeName,
-      final OpenSSHAsymmetricKeyReader keyReader
+      final OpenSSHAsymmetricKeyReader keyReader,
+      final OpenSSHAsymmetricKeyWriter keyWriter
   ) {
     this.typeName = typeName;
     this.keyReader = keyReader;
+    this.keyWriter = keyWriter;
   }
 
   static {
@@ -70,4 +82,23 @@ public enum OpenSSHAsymmetricKeyType {
     return asymmetricKeyType;
   }
 
+  /**
+   * Finds key type able to write a JCA key. Certificate types are never
+   * returned, as a plain key does not carry certificate fields.
+   *
+   * @param key Public or private key
+   * @return Key type
+   */
+  public static OpenSSHAsymmetricKeyType getFromKey(final Key key) {
+    for (OpenSSHAsymmetricKeyType asymmetricKeyType : values()) {
+      if (asymmetricKeyType.keyWriter.canWrite(key)) {
+        return asymmetricKeyType;
+      }
+    }
+
+    throw new RuntimeException(
+        "OpenSSH Asymmetric Key Type not found for key " + key.getAlgorithm()
+    );
+  }
+
 }
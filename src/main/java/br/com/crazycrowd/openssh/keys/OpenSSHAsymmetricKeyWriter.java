@@ -0,0 +1,37 @@
+package br.com.crazycrowd.openssh.keys;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+public interface OpenSSHAsymmetricKeyWriter {
+
+  /**
+   * @param key Public or private key
+   * @return true if this writer knows how to encode specified key class
+   */
+  boolean canWrite(final Key key);
+
+  /**
+   * Writes public key fields, right after key type string, as OpenSSH does
+   * on public key blobs. This is the opposite of
+   * `OpenSSHAsymmetricKeyReader.readPublicKey()`.
+   *
+   * @param writer    Writer positioned after key type string
+   * @param publicKey Key to write
+   */
+  void writePublicKey(final ByteArrayWriter writer, final PublicKey publicKey);
+
+  /**
+   * Writes private key fields, right after key type string, as OpenSSH does
+   * inside private section of key files. This is the opposite of
+   * `OpenSSHAsymmetricKeyReader.readPrivateKey()`, so comment is not written.
+   *
+   * @param writer  Writer positioned after key type string
+   * @param keyPair Key pair to write
+   */
+  void writePrivateKey(final ByteArrayWriter writer, final KeyPair keyPair);
+
+}
@@ -0,0 +1,40 @@
+package br.com.crazycrowd.openssh.keys;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+public class UnsupportedKeyWriter implements OpenSSHAsymmetricKeyWriter {
+
+  private final UnsupportedOperationException unsupportedException;
+
+  public UnsupportedKeyWriter(final String asymmetricKeyType) {
+    this.unsupportedException = new UnsupportedOperationException(
+        asymmetricKeyType + " not supported"
+    );
+  }
+
+  @Override
+  public boolean canWrite(final Key key) {
+    return false;
+  }
+
+  @Override
+  public void writePublicKey(
+      final ByteArrayWriter writer,
+      final PublicKey publicKey
+  ) {
+    throw unsupportedException;
+  }
+
+  @Override
+  public void writePrivateKey(
+      final ByteArrayWriter writer,
+      final KeyPair keyPair
+  ) {
+    throw unsupportedException;
+  }
+
+}
@@ -0,0 +1,23 @@
+package br.com.crazycrowd.openssh.keystore;
+
+import java.security.KeyPair;
+import java.security.KeyStore;
+
+/**
+ * OpenSSH keys come without X.509 certificates, which
+ * `KeyStore.PrivateKeyEntry` requires, so OpenSSH KeyStore entries carry the
+ * whole key pair instead.
+ */
+public class OpenSSHKeyStoreEntry implements KeyStore.Entry {
+
+  public final KeyPair keyPair;
+
+  public OpenSSHKeyStoreEntry(final KeyPair keyPair) {
+    this.keyPair = keyPair;
+  }
+
+  public KeyPair getKeyPair() {
+    return keyPair;
+  }
+
+}
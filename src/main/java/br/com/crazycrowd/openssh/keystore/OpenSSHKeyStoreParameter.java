@@ -0,0 +1,53 @@
+package br.com.crazycrowd.openssh.keystore;
+
+import java.nio.file.Path;
+import java.security.KeyStore;
+
+/**
+ * Loads an OpenSSH KeyStore from a directory of key files or from a single
+ * (possibly multi key) file.
+ */
+public class OpenSSHKeyStoreParameter implements KeyStore.LoadStoreParameter {
+
+  public static final int DEFAULT_CACHE_SIZE = 64;
+
+  public final Path path;
+  public final KeyStore.PasswordProtection passphrase;
+
+  /**
+   * Max number of decrypted key files kept in memory. Passphrases are not
+   * kept, only their HMACs under a random per KeyStore key (PassphraseMac)
+   */
+  public final int cacheSize;
+
+  public OpenSSHKeyStoreParameter(final Path path) {
+    this(path, null);
+  }
+
+  /**
+   * @param path       Key file or directory
+   * @param passphrase Default passphrase, used when `getKey()` or
+   *                   `getEntry()` are called without one. Can be null
+   */
+  public OpenSSHKeyStoreParameter(final Path path, final char[] passphrase) {
+    this(path, passphrase, DEFAULT_CACHE_SIZE);
+  }
+
+  public OpenSSHKeyStoreParameter(
+      final Path path,
+      final char[] passphrase,
+      final int cacheSize
+  ) {
+    this.path = path;
+    this.passphrase = passphrase == null
+        ? null
+        : new KeyStore.PasswordProtection(passphrase);
+    this.cacheSize = cacheSize;
+  }
+
+  @Override
+  public KeyStore.ProtectionParameter getProtectionParameter() {
+    return passphrase;
+  }
+
+}
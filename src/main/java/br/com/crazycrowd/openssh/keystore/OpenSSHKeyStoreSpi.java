@@ -0,0 +1,493 @@
+package br.com.crazycrowd.openssh.keystore;
+
+import br.com.crazycrowd.openssh.LruCache;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.PassphraseMac;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.KeyStoreSpi;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.UnrecoverableEntryException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read only KeyStore over OpenSSH key files. Register OpenSSHProvider and use
+ * KeyStore type "OpenSSH" instead of using this class directly.
+ * <p>
+ * Loading only reads public keys sections, so it is cheap and needs no
+ * passphrase: private keys are decrypted (and KDF paid) on `getKey()` or
+ * `getEntry()`, only for the key file holding requested alias. Every key of
+ * that file is decrypted by the same KDF run, so they are all kept in a LRU
+ * cache, keyed by file and passphrase.
+ * <p>
+ * There is one alias per key. Alias is the comment found in the `.pub` file
+ * next to the key file, when there is one, or the key SHA256 fingerprint, as
+ * printed by `ssh-keygen -l`, otherwise. A key found more than once is
+ * listed once.
+ * <p>
+ * It can be loaded from:
+ * <ul>
+ *   <li>OpenSSHKeyStoreParameter, pointing to a key file or a directory (not
+ *   recursive; files that are not OpenSSH private keys are skipped)</li>
+ *   <li>An InputStream with a single key file content. Stream password is
+ *   used as default passphrase</li>
+ * </ul>
+ */
+public class OpenSSHKeyStoreSpi extends KeyStoreSpi {
+
+  private static final String FINGERPRINT_PREFIX = "SHA256:";
+
+  private final Map<String, KeyLocation> locations = new LinkedHashMap<>();
+  private final Set<String> fingerprints = new HashSet<>();
+  private final PassphraseMac passphraseMac = new PassphraseMac();
+  private LruCache<ByteBuffer, List<KeyPair>> keyPairCache =
+      new LruCache<>(OpenSSHKeyStoreParameter.DEFAULT_CACHE_SIZE);
+  private int nextSourceId;
+  private char[] defaultPassphrase;
+
+  @Override
+  public void engineLoad(
+      final InputStream stream,
+      final char[] password
+  ) throws IOException, NoSuchAlgorithmException {
+    reset(OpenSSHKeyStoreParameter.DEFAULT_CACHE_SIZE, password);
+
+    if (stream == null) {
+      return;
+    }
+
+    final ByteBuffer content = ByteBuffer.wrap(stream.readAllBytes());
+    final Date loadDate = new Date();
+
+    try {
+      addKeys(
+          OpenSSHKeyReader.getInstance().readPublicKeys(content),
+          new KeySource(null, content),
+          null,
+          loadDate
+      );
+    } catch (final GeneralSecurityException | RuntimeException e) {
+      throw new IOException("OpenSSH key content can not be read", e);
+    }
+  }
+
+  @Override
+  public void engineLoad(
+      final KeyStore.LoadStoreParameter param
+  ) throws IOException, NoSuchAlgorithmException {
+    if (param == null) {
+      engineLoad(null, null);
+      return;
+    }
+
+    if (!(param instanceof OpenSSHKeyStoreParameter)) {
+      throw new IllegalArgumentException(
+          "Load parameter must be an OpenSSHKeyStoreParameter"
+      );
+    }
+
+    final OpenSSHKeyStoreParameter openSSHParam =
+        (OpenSSHKeyStoreParameter) param;
+
+    reset(
+        openSSHParam.cacheSize,
+        openSSHParam.passphrase == null
+            ? null
+            : openSSHParam.passphrase.getPassword()
+    );
+
+    if (Files.isDirectory(openSSHParam.path)) {
+      final List<Path> files = new ArrayList<>();
+
+      try (Stream<Path> entries = Files.list(openSSHParam.path)) {
+        entries.filter(Files::isRegularFile)
+            .filter(file -> !file.getFileName().toString().endsWith(".pub"))
+            .sorted()
+            .forEach(files::add);
+      }
+
+      for (final Path file : files) {
+        loadFile(file, true);
+      }
+    } else {
+      loadFile(openSSHParam.path, false);
+    }
+  }
+
+  @Override
+  public Key engineGetKey(
+      final String alias,
+      final char[] password
+  ) throws UnrecoverableKeyException {
+    final KeyPair keyPair = getKeyPair(alias, password);
+
+    return keyPair == null ? null : keyPair.getPrivate();
+  }
+
+  @Override
+  public KeyStore.Entry engineGetEntry(
+      final String alias,
+      final KeyStore.ProtectionParameter protParam
+  ) throws UnrecoverableEntryException {
+    if (protParam != null &&
+        !(protParam instanceof KeyStore.PasswordProtection)) {
+      throw new UnsupportedOperationException(
+          "Only PasswordProtection is supported"
+      );
+    }
+
+    final char[] password = protParam == null
+        ? null
+        : ((KeyStore.PasswordProtection) protParam).getPassword();
+
+    try {
+      final KeyPair keyPair = getKeyPair(alias, password);
+
+      return keyPair == null ? null : new OpenSSHKeyStoreEntry(keyPair);
+    } catch (final UnrecoverableKeyException e) {
+      final UnrecoverableEntryException entryException =
+          new UnrecoverableEntryException(e.getMessage());
+      entryException.initCause(e);
+      throw entryException;
+    }
+  }
+
+  @Override
+  public boolean engineEntryInstanceOf(
+      final String alias,
+      final Class<? extends KeyStore.Entry> entryClass
+  ) {
+    return locations.containsKey(alias) &&
+        entryClass.isAssignableFrom(OpenSSHKeyStoreEntry.class);
+  }
+
+  @Override
+  public Certificate[] engineGetCertificateChain(final String alias) {
+    return null;
+  }
+
+  @Override
+  public Certificate engineGetCertificate(final String alias) {
+    return null;
+  }
+
+  @Override
+  public Date engineGetCreationDate(final String alias) {
+    final KeyLocation location = locations.get(alias);
+
+    return location == null ? null : new Date(location.creationDate.getTime());
+  }
+
+  @Override
+  public void engineSetKeyEntry(
+      final String alias,
+      final Key key,
+      final char[] password,
+      final Certificate[] chain
+  ) {
+    throw readOnly();
+  }
+
+  @Override
+  public void engineSetKeyEntry(
+      final String alias,
+      final byte[] key,
+      final Certificate[] chain
+  ) {
+    throw readOnly();
+  }
+
+  @Override
+  public void engineSetCertificateEntry(
+      final String alias,
+      final Certificate cert
+  ) {
+    throw readOnly();
+  }
+
+  @Override
+  public void engineDeleteEntry(final String alias) {
+    throw readOnly();
+  }
+
+  @Override
+  public Enumeration<String> engineAliases() {
+    return Collections.enumeration(new ArrayList<>(locations.keySet()));
+  }
+
+  @Override
+  public boolean engineContainsAlias(final String alias) {
+    return locations.containsKey(alias);
+  }
+
+  @Override
+  public int engineSize() {
+    return locations.size();
+  }
+
+  @Override
+  public boolean engineIsKeyEntry(final String alias) {
+    return locations.containsKey(alias);
+  }
+
+  @Override
+  public boolean engineIsCertificateEntry(final String alias) {
+    return false;
+  }
+
+  @Override
+  public String engineGetCertificateAlias(final Certificate cert) {
+    return null;
+  }
+
+  @Override
+  public void engineStore(
+      final OutputStream stream,
+      final char[] password
+  ) {
+    throw readOnly();
+  }
+
+  private void reset(final int cacheSize, final char[] passphrase) {
+    locations.clear();
+    fingerprints.clear();
+    keyPairCache = new LruCache<>(cacheSize);
+    defaultPassphrase = passphrase == null ? null : passphrase.clone();
+  }
+
+  /**
+   * @param skipInvalid When loading a directory, files that are not OpenSSH
+   *                    private keys are skipped instead of failing load
+   */
+  private void loadFile(
+      final Path file,
+      final boolean skipInvalid
+  ) throws IOException {
+    final List<PublicKey> publicKeys;
+
+    try {
+      publicKeys = OpenSSHKeyReader.getInstance().readFilePublicKeys(file);
+    } catch (final GeneralSecurityException | RuntimeException e) {
+      if (skipInvalid) {
+        return;
+      }
+
+      throw new IOException("OpenSSH key file can not be read: " + file, e);
+    }
+
+    addKeys(
+        publicKeys,
+        new KeySource(file, null),
+        publicKeys.size() == 1 ? readPublicKeyComment(file) : null,
+        new Date(Files.getLastModifiedTime(file).toMillis())
+    );
+  }
+
+  private void addKeys(
+      final List<PublicKey> publicKeys,
+      final KeySource source,
+      final String comment,
+      final Date creationDate
+  ) {
+    for (int idx = 0; idx < publicKeys.size(); idx++) {
+      final String fingerprint = fingerprint(publicKeys.get(idx));
+
+      if (!fingerprints.add(fingerprint)) {
+        continue;
+      }
+
+      final String alias = comment != null && !locations.containsKey(comment)
+          ? comment
+          : fingerprint;
+
+      locations.put(alias, new KeyLocation(source, idx, creationDate));
+    }
+  }
+
+  /**
+   * `.pub` line format: <key type> <base64 key> [comment]
+   */
+  private String readPublicKeyComment(final Path keyFile) throws IOException {
+    final Path publicKeyFile =
+        keyFile.resolveSibling(keyFile.getFileName() + ".pub");
+
+    if (!Files.isRegularFile(publicKeyFile)) {
+      return null;
+    }
+
+    final String[] fields =
+        Files.readString(publicKeyFile).trim().split("\\s+", 3);
+
+    return fields.length == 3 && !fields[2].isEmpty() ? fields[2] : null;
+  }
+
+  private KeyPair getKeyPair(
+      final String alias,
+      final char[] password
+  ) throws UnrecoverableKeyException {
+    final KeyLocation location = locations.get(alias);
+
+    if (location == null) {
+      return null;
+    }
+
+    final char[] passphrase = password != null ? password : defaultPassphrase;
+    final byte[] passphraseBytes = encode(passphrase);
+
+    try {
+      final ByteBuffer cacheKey =
+          buildCacheKey(location.source, passphraseBytes);
+      final List<KeyPair> cachedKeyPairs = keyPairCache.get(cacheKey);
+
+      if (cachedKeyPairs != null) {
+        return cachedKeyPairs.get(location.index);
+      }
+
+      // Every key of source is cached, as they all share one KDF run
+      final List<KeyPair> keyPairs =
+          decrypt(alias, location.source, passphraseBytes);
+      keyPairCache.put(cacheKey, keyPairs);
+
+      return keyPairs.get(location.index);
+    } finally {
+      if (passphraseBytes != null) {
+        Arrays.fill(passphraseBytes, (byte) 0);
+      }
+    }
+  }
+
+  private List<KeyPair> decrypt(
+      final String alias,
+      final KeySource source,
+      final byte[] passphrase
+  ) throws UnrecoverableKeyException {
+    try {
+      return source.file != null
+          ? OpenSSHKeyReader.getInstance().decryptFile(source.file, passphrase)
+          : OpenSSHKeyReader.getInstance().decrypt(source.content, passphrase);
+    } catch (final IOException | GeneralSecurityException |
+        RuntimeException e) {
+      final UnrecoverableKeyException keyException =
+          new UnrecoverableKeyException(
+              "OpenSSH key can not be decrypted: " + alias
+          );
+      keyException.initCause(e);
+      throw keyException;
+    }
+  }
+
+  /**
+   * Encodes passphrase as UTF-8 without going through a String, which could
+   * not be wiped. Caller wipes returned bytes.
+   */
+  private static byte[] encode(final char[] passphrase) {
+    if (passphrase == null) {
+      return null;
+    }
+
+    final ByteBuffer encoded =
+        StandardCharsets.UTF_8.encode(CharBuffer.wrap(passphrase));
+    final byte[] passphraseBytes = new byte[encoded.remaining()];
+    encoded.get(passphraseBytes);
+    Arrays.fill(encoded.array(), (byte) 0);
+
+    return passphraseBytes;
+  }
+
+  /**
+   * Passphrase is part of cache key, so cached keys are never returned for a
+   * wrong passphrase. Only its PassphraseMac is kept.
+   */
+  private ByteBuffer buildCacheKey(
+      final KeySource source,
+      final byte[] passphrase
+  ) {
+    final byte[] passphraseMac = this.passphraseMac.mac(passphrase);
+
+    return ByteBuffer
+        .allocate(Integer.BYTES + passphraseMac.length)
+        .putInt(source.id)
+        .put(passphraseMac)
+        .flip();
+  }
+
+  private String fingerprint(final PublicKey publicKey) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(OpenSSHKeyWriter.getInstance().writePublicKey(publicKey));
+
+      return FINGERPRINT_PREFIX +
+          Base64.getEncoder().withoutPadding().encodeToString(digest);
+    } catch (final NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static UnsupportedOperationException readOnly() {
+    return new UnsupportedOperationException("OpenSSH KeyStore is read only");
+  }
+
+  /**
+   * Either a file, read again on each decryption, or content loaded from a
+   * stream.
+   */
+  private class KeySource {
+
+    private final int id = nextSourceId++;
+    private final Path file;
+    private final ByteBuffer content;
+
+    private KeySource(final Path file, final ByteBuffer content) {
+      this.file = file;
+      this.content = content;
+    }
+
+  }
+
+  private static class KeyLocation {
+
+    private final KeySource source;
+    private final int index;
+    private final Date creationDate;
+
+    private KeyLocation(
+        final KeySource source,
+        final int index,
+        final Date creationDate
+    ) {
+      this.source = source;
+      this.index = index;
+      this.creationDate = creationDate;
+    }
+
+  }
+
+}
@@ -0,0 +1,30 @@
+package br.com.crazycrowd.openssh.keystore;
+
+import java.security.Provider;
+
+/**
+ * JCA provider exposing OpenSSH key files as a read only KeyStore of type
+ * "OpenSSH":
+ * <p>
+ * `KeyStore keyStore = KeyStore.getInstance("OpenSSH", new OpenSSHProvider());`
+ * <p>
+ * `keyStore.load(new OpenSSHKeyStoreParameter(directory, passphrase));`
+ * <p>
+ * Check OpenSSHKeyStoreSpi for aliases and loading details.
+ */
+public class OpenSSHProvider extends Provider {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final String NAME = "OpenSSH";
+  public static final String KEY_STORE_TYPE = "OpenSSH";
+  // Keep in sync with version in build.gradle
+  public static final String VERSION = "0.1.0";
+
+  public OpenSSHProvider() {
+    super(NAME, VERSION, "OpenSSH key files KeyStore");
+
+    put("KeyStore." + KEY_STORE_TYPE, OpenSSHKeyStoreSpi.class.getName());
+  }
+
+}
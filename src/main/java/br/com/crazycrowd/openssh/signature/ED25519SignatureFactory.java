@@ -0,0 +1,31 @@
+package br.com.crazycrowd.openssh.signature;
+
+import net.i2p.crypto.eddsa.EdDSAEngine;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.Signature;
+
+/**
+ * Builds `EdDSAEngine` directly instead of going through
+ * `Signature.getInstance()`, so signatures work even when EdDSA provider was
+ * not registered (check README.md).
+ */
+public class ED25519SignatureFactory implements OpenSSHSignatureFactory {
+
+  private static final ED25519SignatureFactory instance =
+      new ED25519SignatureFactory();
+
+  private ED25519SignatureFactory() {
+  }
+
+  public static ED25519SignatureFactory getInstance() {
+    return instance;
+  }
+
+  @Override
+  public Signature newSignature() throws GeneralSecurityException {
+    return new EdDSAEngine(MessageDigest.getInstance("SHA-512"));
+  }
+
+}
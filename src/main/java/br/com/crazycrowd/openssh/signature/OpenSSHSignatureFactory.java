@@ -0,0 +1,17 @@
+package br.com.crazycrowd.openssh.signature;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+
+public interface OpenSSHSignatureFactory {
+
+  /**
+   * Creates a new, uninitialized, JCA signature able to produce and verify
+   * the raw signature bytes carried inside an OpenSSH signature blob.
+   *
+   * @return Signature not yet initialized for signing or verifying
+   * @throws GeneralSecurityException In case algorithm is not available
+   */
+  Signature newSignature() throws GeneralSecurityException;
+
+}
@@ -0,0 +1,60 @@
+package br.com.crazycrowd.openssh.signature;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signature formats, as written in the first string of an OpenSSH signature
+ * blob. Extracted from `sshkey.c` keytypes static array (check
+ * OpenSSHAsymmetricKeyType) and PROTOCOL file in OpenSSH repo.
+ */
+public enum OpenSSHSignatureType {
+
+  DSA("ssh-dss"),
+  ECDSA_256("ecdsa-sha2-nistp256"),
+  ECDSA_384("ecdsa-sha2-nistp384"),
+  ECDSA_521("ecdsa-sha2-nistp521"),
+  ED25519("ssh-ed25519", ED25519SignatureFactory.getInstance()),
+  RSA("ssh-rsa"),
+  RSA_SHA2_256("rsa-sha2-256"),
+  RSA_SHA2_512("rsa-sha2-512");
+
+  public final String typeName;
+  public final OpenSSHSignatureFactory signatureFactory;
+  private static final Map<String, OpenSSHSignatureType> typeNameToEnumMap;
+
+  OpenSSHSignatureType(final String typeName) {
+    this(typeName, new UnsupportedSignatureFactory(typeName));
+  }
+
+  OpenSSHSignatureType(
+      final String typeName,
+      final OpenSSHSignatureFactory signatureFactory
+  ) {
+    this.typeName = typeName;
+    this.signatureFactory = signatureFactory;
+  }
+
+  static {
+    typeNameToEnumMap = new HashMap<>();
+
+    for (final OpenSSHSignatureType signatureType : values()) {
+      typeNameToEnumMap.put(signatureType.typeName, signatureType);
+    }
+  }
+
+  public static OpenSSHSignatureType getFromTypeNameString(
+      final String typeName
+  ) {
+    final OpenSSHSignatureType signatureType = typeNameToEnumMap.get(typeName);
+
+    if (signatureType == null) {
+      throw new RuntimeException(
+          "OpenSSH signature type not found for name " + typeName
+      );
+    }
+
+    return signatureType;
+  }
+
+}
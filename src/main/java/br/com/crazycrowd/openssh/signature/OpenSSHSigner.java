@@ -0,0 +1,64 @@
+package br.com.crazycrowd.openssh.signature;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+
+/**
+ * Produces OpenSSH signature blobs (signature type string followed by raw
+ * signature string), the format used by SSH protocol, certificates, SSHSIG
+ * and ssh-agent. Signature instances are reused through a SignaturePool.
+ * <p>
+ * This class is thread safe.
+ */
+public class OpenSSHSigner {
+
+  private final SignaturePool signaturePool;
+
+  public OpenSSHSigner() {
+    this(new SignaturePool());
+  }
+
+  public OpenSSHSigner(final SignaturePool signaturePool) {
+    this.signaturePool = signaturePool;
+  }
+
+  /**
+   * @param privateKey Private key, as returned by OpenSSHKeyReader
+   * @param data       Data to sign
+   * @return OpenSSH signature blob
+   */
+  public byte[] sign(
+      final PrivateKey privateKey,
+      final byte[] data
+  ) throws GeneralSecurityException {
+    final OpenSSHSignatureType signatureType = getSignatureType(privateKey);
+
+    final byte[] signatureBytes = signaturePool.withSigner(
+        signatureType,
+        privateKey,
+        signature -> {
+          signature.update(data);
+          return signature.sign();
+        }
+    );
+
+    return new ByteArrayWriter()
+        .writeString(signatureType.typeName)
+        .writeString(signatureBytes)
+        .toByteArray();
+  }
+
+  /**
+   * Default signature type for a key. Key and signature type names are the
+   * same for every supported key type.
+   */
+  private OpenSSHSignatureType getSignatureType(final PrivateKey privateKey) {
+    return OpenSSHSignatureType.getFromTypeNameString(
+        OpenSSHAsymmetricKeyType.getFromKey(privateKey).typeName
+    );
+  }
+
+}
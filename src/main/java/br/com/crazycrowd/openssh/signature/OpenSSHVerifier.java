@@ -0,0 +1,67 @@
+package br.com.crazycrowd.openssh.signature;
+
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.SignatureException;
+
+/**
+ * Verifies OpenSSH signature blobs (signature type string followed by raw
+ * signature string) written by OpenSSHSigner or OpenSSH itself. Signature
+ * instances are reused through a SignaturePool.
+ * <p>
+ * This class is thread safe.
+ */
+public class OpenSSHVerifier {
+
+  private final SignaturePool signaturePool;
+
+  public OpenSSHVerifier() {
+    this(new SignaturePool());
+  }
+
+  public OpenSSHVerifier(final SignaturePool signaturePool) {
+    this.signaturePool = signaturePool;
+  }
+
+  /**
+   * @param publicKey     Public key, as returned by OpenSSHKeyReader
+   * @param data          Signed data
+   * @param signatureBlob OpenSSH signature blob
+   * @return true if signature is valid for data and key
+   * @throws SignatureException In case signature type does not match key
+   */
+  public boolean verify(
+      final PublicKey publicKey,
+      final byte[] data,
+      final byte[] signatureBlob
+  ) throws GeneralSecurityException {
+    final ByteBuffer buf = ByteBuffer.wrap(signatureBlob);
+    final OpenSSHSignatureType signatureType = OpenSSHSignatureType
+        .getFromTypeNameString(ByteBufferUtils.readString(buf));
+    final byte[] signatureBytes = ByteBufferUtils.readStringBytes(buf);
+
+    final String keyTypeName =
+        OpenSSHAsymmetricKeyType.getFromKey(publicKey).typeName;
+
+    if (!keyTypeName.equals(signatureType.typeName)) {
+      throw new SignatureException(
+          "Signature type " + signatureType.typeName +
+              " does not match key type " + keyTypeName
+      );
+    }
+
+    return signaturePool.withVerifier(
+        signatureType,
+        publicKey,
+        signature -> {
+          signature.update(data);
+          return signature.verify(signatureBytes);
+        }
+    );
+  }
+
+}
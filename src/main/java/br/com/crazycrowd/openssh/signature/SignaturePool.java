@@ -0,0 +1,184 @@
+package br.com.crazycrowd.openssh.signature;
+
+import br.com.crazycrowd.openssh.LruCache;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Keeps `Signature` instances already initialized for a key, so signing or
+ * verifying many messages with the same key skips both `Signature` creation
+ * and key initialization (which, for Ed25519, hashes the private key and
+ * expands it again).
+ * <p>
+ * A `Signature` is reset to its initialized state after `sign()` or
+ * `verify()`, so it can be handed to the next caller right away. Instances
+ * are not thread safe, so each one is borrowed by a single thread at a time;
+ * pools are bounded both in number of keys (LRU) and idle instances per key.
+ */
+public class SignaturePool {
+
+  public static final int DEFAULT_MAX_KEYS = 256;
+  public static final int DEFAULT_MAX_IDLE_PER_KEY =
+      Runtime.getRuntime().availableProcessors();
+
+  private final int maxIdlePerKey;
+  private final LruCache<PoolKey, Queue<Signature>> pools;
+
+  public SignaturePool() {
+    this(DEFAULT_MAX_KEYS, DEFAULT_MAX_IDLE_PER_KEY);
+  }
+
+  /**
+   * @param maxKeys       Max number of keys with pooled instances
+   * @param maxIdlePerKey Max number of idle instances kept per key
+   */
+  public SignaturePool(final int maxKeys, final int maxIdlePerKey) {
+    if (maxIdlePerKey < 1) {
+      throw new IllegalArgumentException(
+          "Idle signatures per key must be positive: " + maxIdlePerKey
+      );
+    }
+
+    this.maxIdlePerKey = maxIdlePerKey;
+    this.pools = new LruCache<>(maxKeys);
+  }
+
+  /**
+   * Runs `operation` with a Signature initialized for signing with
+   * `privateKey`. Signature must not be used after `operation` returns.
+   */
+  public <T> T withSigner(
+      final OpenSSHSignatureType signatureType,
+      final PrivateKey privateKey,
+      final SignatureOperation<T> operation
+  ) throws GeneralSecurityException {
+    return withSignature(
+        new PoolKey(signatureType, privateKey, true),
+        operation
+    );
+  }
+
+  /**
+   * Runs `operation` with a Signature initialized for verifying with
+   * `publicKey`. Signature must not be used after `operation` returns.
+   */
+  public <T> T withVerifier(
+      final OpenSSHSignatureType signatureType,
+      final PublicKey publicKey,
+      final SignatureOperation<T> operation
+  ) throws GeneralSecurityException {
+    return withSignature(
+        new PoolKey(signatureType, publicKey, false),
+        operation
+    );
+  }
+
+  /**
+   * @return Number of keys with pooled instances, at most `maxKeys`
+   */
+  public int getKeyCount() {
+    return pools.size();
+  }
+
+  /**
+   * Drops every pooled instance, releasing key references held by them.
+   */
+  public void clear() {
+    pools.clear();
+  }
+
+  private <T> T withSignature(
+      final PoolKey poolKey,
+      final SignatureOperation<T> operation
+  ) throws GeneralSecurityException {
+    final Queue<Signature> pool = pools.computeIfAbsent(
+        poolKey,
+        key -> new ArrayBlockingQueue<>(maxIdlePerKey)
+    );
+
+    Signature signature = pool.poll();
+
+    if (signature == null) {
+      signature = newSignature(poolKey);
+    }
+
+    final T result = operation.apply(signature);
+
+    // Only reached when operation succeeds: a failed Signature could be left
+    // in an unknown state, so it is just dropped. When pool is full, offer()
+    // drops it as well.
+    pool.offer(signature);
+
+    return result;
+  }
+
+  private Signature newSignature(
+      final PoolKey poolKey
+  ) throws GeneralSecurityException {
+    final Signature signature =
+        poolKey.signatureType.signatureFactory.newSignature();
+
+    if (poolKey.signing) {
+      signature.initSign((PrivateKey) poolKey.key);
+    } else {
+      signature.initVerify((PublicKey) poolKey.key);
+    }
+
+    return signature;
+  }
+
+  @FunctionalInterface
+  public interface SignatureOperation<T> {
+
+    T apply(final Signature signature) throws GeneralSecurityException;
+
+  }
+
+  private static class PoolKey {
+
+    private final OpenSSHSignatureType signatureType;
+    private final Key key;
+    private final boolean signing;
+
+    private PoolKey(
+        final OpenSSHSignatureType signatureType,
+        final Key key,
+        final boolean signing
+    ) {
+      this.signatureType = signatureType;
+      this.key = key;
+      this.signing = signing;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+
+      if (!(other instanceof PoolKey)) {
+        return false;
+      }
+
+      final PoolKey otherKey = (PoolKey) other;
+
+      return signing == otherKey.signing &&
+          signatureType == otherKey.signatureType &&
+          key.equals(otherKey.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(signatureType, key, signing);
+    }
+
+  }
+
+}
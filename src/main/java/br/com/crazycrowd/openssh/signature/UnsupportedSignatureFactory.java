@@ -0,0 +1,20 @@
+package br.com.crazycrowd.openssh.signature;
+
+import java.security.Signature;
+
+public class UnsupportedSignatureFactory implements OpenSSHSignatureFactory {
+
+  private final UnsupportedOperationException unsupportedException;
+
+  public UnsupportedSignatureFactory(final String signatureType) {
+    this.unsupportedException = new UnsupportedOperationException(
+        "Signature not yet supported: " + signatureType
+    );
+  }
+
+  @Override
+  public Signature newSignature() {
+    throw unsupportedException;
+  }
+
+}
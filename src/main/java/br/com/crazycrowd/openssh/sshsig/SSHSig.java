@@ -0,0 +1,125 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.ByteBufferUtils;
+import br.com.crazycrowd.openssh.OpenSSHArmor;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * SSHSIG format constants and helpers. Check PROTOCOL.sshsig file in OpenSSH
+ * repo to understand this format: it is what `ssh-keygen -Y sign` writes and
+ * what git uses for SSH commit signatures.
+ */
+public class SSHSig {
+
+  public static final String MAGIC_PREAMBLE = "SSHSIG";
+  public static final int SIG_VERSION = 1;
+  public static final String BEGIN_SIGNATURE = "-----BEGIN SSH SIGNATURE-----";
+  public static final String END_SIGNATURE = "-----END SSH SIGNATURE-----";
+
+  private SSHSig() {
+  }
+
+  /**
+   * Builds the blob actually signed by the key: magic preamble, namespace,
+   * reserved field, hash algorithm and message hash.
+   */
+  static byte[] buildSignedData(
+      final String namespace,
+      final SSHSigHashAlgorithm hashAlgorithm,
+      final byte[] messageHash
+  ) {
+    return new ByteArrayWriter()
+        .writeRawBytes(MAGIC_PREAMBLE.getBytes())
+        .writeString(namespace)
+        .writeString("")
+        .writeString(hashAlgorithm.algorithmName)
+        .writeString(messageHash)
+        .toByteArray();
+  }
+
+  /**
+   * Armors an SSHSIG blob the same way `ssh-keygen -Y sign` does.
+   *
+   * @param signatureBlob SSHSIG blob
+   * @return Armored signature, ending with a line break
+   */
+  public static String armor(final byte[] signatureBlob) {
+    return OpenSSHArmor.armor(BEGIN_SIGNATURE, END_SIGNATURE, signatureBlob);
+  }
+
+  /**
+   * Removes armor lines and decodes an armored SSHSIG signature.
+   *
+   * @param armoredSignature Signature, as written by `ssh-keygen -Y sign`
+   * @return SSHSIG blob
+   */
+  public static byte[] dearmor(final String armoredSignature) {
+    final StringBuilder sb = new StringBuilder(armoredSignature.length());
+
+    for (final String line : armoredSignature.split("\\R")) {
+      if (!line.startsWith("-")) {
+        sb.append(line.trim());
+      }
+    }
+
+    return Base64.getDecoder().decode(sb.toString());
+  }
+
+  /**
+   * @param signatureBlob SSHSIG blob, already dearmored
+   * @return SSHSIG fields
+   */
+  public static SSHSigSignature readSignature(final byte[] signatureBlob) {
+    final ByteBuffer buf = ByteBuffer.wrap(signatureBlob);
+    final String magic = ByteBufferUtils
+        .readNextBytesAsString(buf, MAGIC_PREAMBLE.length());
+
+    if (!MAGIC_PREAMBLE.equals(magic)) {
+      throw new IllegalArgumentException("SSHSIG magic does not match: " +
+          "Expected " + MAGIC_PREAMBLE + " | Found " + magic);
+    }
+
+    final int version = buf.getInt();
+
+    if (version != SIG_VERSION) {
+      throw new IllegalArgumentException("SSHSIG version does not match: " +
+          "Expected " + SIG_VERSION + " | Found " + version);
+    }
+
+    final byte[] publicKey = ByteBufferUtils.readStringBytes(buf);
+    final String namespace = ByteBufferUtils.readString(buf);
+
+    // Reserved
+    ByteBufferUtils.readStringBytes(buf);
+
+    final SSHSigHashAlgorithm hashAlgorithm = SSHSigHashAlgorithm
+        .getFromAlgorithmString(ByteBufferUtils.readString(buf));
+    final byte[] signature = ByteBufferUtils.readStringBytes(buf);
+
+    return new SSHSigSignature(publicKey, namespace, hashAlgorithm, signature);
+  }
+
+  /**
+   * @param bytes Signature bytes of unknown format
+   * @return true if bytes start with SSHSIG magic preamble
+   */
+  public static boolean isSSHSig(final byte[] bytes) {
+    final byte[] magic = MAGIC_PREAMBLE.getBytes();
+
+    if (bytes.length < magic.length) {
+      return false;
+    }
+
+    for (int idx = 0; idx < magic.length; idx++) {
+      if (bytes[idx] != magic[idx]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+}
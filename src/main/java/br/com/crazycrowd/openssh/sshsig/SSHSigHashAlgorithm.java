@@ -0,0 +1,70 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Extracted from PROTOCOL.sshsig file in OpenSSH repo.
+ */
+public enum SSHSigHashAlgorithm {
+
+  SHA256("sha256", "SHA-256"),
+  SHA512("sha512", "SHA-512");
+
+  public final String algorithmName;
+  public final String jcaName;
+  private final ThreadLocal<MessageDigest> digests;
+  private static final Map<String, SSHSigHashAlgorithm> algorithmToEnumMap;
+
+  SSHSigHashAlgorithm(final String algorithmName, final String jcaName) {
+    this.algorithmName = algorithmName;
+    this.jcaName = jcaName;
+    this.digests = ThreadLocal.withInitial(() -> {
+      try {
+        return MessageDigest.getInstance(jcaName);
+      } catch (final NoSuchAlgorithmException e) {
+        // Every Java platform is required to support both algorithms
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  static {
+    algorithmToEnumMap = new HashMap<>();
+
+    for (final SSHSigHashAlgorithm hashAlgorithm : values()) {
+      algorithmToEnumMap.put(hashAlgorithm.algorithmName, hashAlgorithm);
+    }
+  }
+
+  /**
+   * Digest owned by calling thread, already reset. Do not share it with other
+   * threads.
+   *
+   * @return MessageDigest for this algorithm
+   */
+  public MessageDigest getDigest() {
+    final MessageDigest digest = digests.get();
+    digest.reset();
+
+    return digest;
+  }
+
+  public static SSHSigHashAlgorithm getFromAlgorithmString(
+      final String algorithmName
+  ) {
+    final SSHSigHashAlgorithm hashAlgorithm =
+        algorithmToEnumMap.get(algorithmName);
+
+    if (hashAlgorithm == null) {
+      throw new RuntimeException(
+          "SSHSIG hash algorithm not found for name " + algorithmName
+      );
+    }
+
+    return hashAlgorithm;
+  }
+
+}
@@ -0,0 +1,32 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+/**
+ * SSHSIG blob fields. Use `SSHSig.readSignature()` to build it.
+ */
+public class SSHSigSignature {
+
+  /**
+   * Signer public key blob, readable with `OpenSSHKeyReader.readPublicKey()`
+   */
+  public final byte[] publicKey;
+  public final String namespace;
+  public final SSHSigHashAlgorithm hashAlgorithm;
+
+  /**
+   * OpenSSH signature blob over SSHSIG signed data
+   */
+  public final byte[] signature;
+
+  public SSHSigSignature(
+      final byte[] publicKey,
+      final String namespace,
+      final SSHSigHashAlgorithm hashAlgorithm,
+      final byte[] signature
+  ) {
+    this.publicKey = publicKey;
+    this.namespace = namespace;
+    this.hashAlgorithm = hashAlgorithm;
+    this.signature = signature;
+  }
+
+}
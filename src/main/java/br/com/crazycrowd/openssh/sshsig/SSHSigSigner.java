@@ -0,0 +1,109 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.signature.OpenSSHSigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+
+/**
+ * Signs messages in SSHSIG format, the same as `ssh-keygen -Y sign`.
+ * <p>
+ * Only the message hash is signed, so messages are streamed through the
+ * digest and never held in memory. Signature instances are reused through
+ * OpenSSHSigner pool, so signing many messages with the same key does not
+ * pay key initialization again.
+ * <p>
+ * This class is thread safe.
+ */
+public class SSHSigSigner {
+
+  private static final int STREAM_BUFFER_SIZE = 8192;
+
+  private final OpenSSHSigner signer;
+  private final SSHSigHashAlgorithm hashAlgorithm;
+
+  /**
+   * Uses SHA-512, the same default as `ssh-keygen`.
+   */
+  public SSHSigSigner() {
+    this(new OpenSSHSigner(), SSHSigHashAlgorithm.SHA512);
+  }
+
+  public SSHSigSigner(
+      final OpenSSHSigner signer,
+      final SSHSigHashAlgorithm hashAlgorithm
+  ) {
+    this.signer = signer;
+    this.hashAlgorithm = hashAlgorithm;
+  }
+
+  /**
+   * @param keyPair   Key pair, as returned by OpenSSHKeyReader
+   * @param namespace Signature namespace, like "file" or "git"
+   * @param message   Message to sign
+   * @return SSHSIG blob. Use `SSHSig.armor()` to get the text format
+   */
+  public byte[] sign(
+      final KeyPair keyPair,
+      final String namespace,
+      final byte[] message
+  ) throws GeneralSecurityException {
+    final MessageDigest digest = hashAlgorithm.getDigest();
+    digest.update(message);
+
+    return signHash(keyPair, namespace, digest.digest());
+  }
+
+  /**
+   * Same as `sign(KeyPair, String, byte[])`, but reads message from a stream
+   * until its end. Stream is not closed.
+   */
+  public byte[] sign(
+      final KeyPair keyPair,
+      final String namespace,
+      final InputStream message
+  ) throws IOException, GeneralSecurityException {
+    final MessageDigest digest = hashAlgorithm.getDigest();
+    final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+
+    int read;
+    while ((read = message.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+    }
+
+    return signHash(keyPair, namespace, digest.digest());
+  }
+
+  private byte[] signHash(
+      final KeyPair keyPair,
+      final String namespace,
+      final byte[] messageHash
+  ) throws GeneralSecurityException {
+    if (namespace == null || namespace.isEmpty()) {
+      throw new IllegalArgumentException("SSHSIG namespace is mandatory");
+    }
+
+    final byte[] signature = signer.sign(
+        keyPair.getPrivate(),
+        SSHSig.buildSignedData(namespace, hashAlgorithm, messageHash)
+    );
+
+    return new ByteArrayWriter()
+        .writeRawBytes(SSHSig.MAGIC_PREAMBLE.getBytes())
+        .writeInt(SSHSig.SIG_VERSION)
+        .writeString(
+            OpenSSHKeyWriter.getInstance().writePublicKey(keyPair.getPublic())
+        )
+        .writeString(namespace)
+        .writeString("")
+        .writeString(hashAlgorithm.algorithmName)
+        .writeString(signature)
+        .toByteArray();
+  }
+
+}
@@ -0,0 +1,101 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.signature.OpenSSHVerifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+
+/**
+ * Verifies SSHSIG signatures, the same as `ssh-keygen -Y verify` minus
+ * allowed signers file handling: caller decides which key is trusted.
+ * <p>
+ * This class is thread safe.
+ */
+public class SSHSigVerifier {
+
+  private static final int STREAM_BUFFER_SIZE = 8192;
+
+  private final OpenSSHVerifier verifier;
+
+  public SSHSigVerifier() {
+    this(new OpenSSHVerifier());
+  }
+
+  public SSHSigVerifier(final OpenSSHVerifier verifier) {
+    this.verifier = verifier;
+  }
+
+  /**
+   * @param publicKey Trusted signer key
+   * @param namespace Expected namespace, like "file" or "git"
+   * @param message   Signed message
+   * @param signature SSHSIG fields, as returned by `SSHSig.readSignature()`
+   * @return true if signature was made by `publicKey` over `message` under
+   * `namespace`
+   */
+  public boolean verify(
+      final PublicKey publicKey,
+      final String namespace,
+      final byte[] message,
+      final SSHSigSignature signature
+  ) throws GeneralSecurityException {
+    final MessageDigest digest = signature.hashAlgorithm.getDigest();
+    digest.update(message);
+
+    return verifyHash(publicKey, namespace, digest.digest(), signature);
+  }
+
+  /**
+   * Same as `verify(PublicKey, String, byte[], SSHSigSignature)`, but reads
+   * message from a stream until its end. Stream is not closed.
+   */
+  public boolean verify(
+      final PublicKey publicKey,
+      final String namespace,
+      final InputStream message,
+      final SSHSigSignature signature
+  ) throws IOException, GeneralSecurityException {
+    final MessageDigest digest = signature.hashAlgorithm.getDigest();
+    final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+
+    int read;
+    while ((read = message.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+    }
+
+    return verifyHash(publicKey, namespace, digest.digest(), signature);
+  }
+
+  private boolean verifyHash(
+      final PublicKey publicKey,
+      final String namespace,
+      final byte[] messageHash,
+      final SSHSigSignature signature
+  ) throws GeneralSecurityException {
+    if (!signature.namespace.equals(namespace)) {
+      return false;
+    }
+
+    final byte[] publicKeyBlob =
+        OpenSSHKeyWriter.getInstance().writePublicKey(publicKey);
+
+    if (!MessageDigest.isEqual(publicKeyBlob, signature.publicKey)) {
+      return false;
+    }
+
+    return verifier.verify(
+        publicKey,
+        SSHSig.buildSignedData(
+            signature.namespace,
+            signature.hashAlgorithm,
+            messageHash
+        ),
+        signature.signature
+    );
+  }
+
+}
@@ -0,0 +1,273 @@
+package br.com.crazycrowd.openssh.verify;
+
+import br.com.crazycrowd.openssh.LruCache;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.signature.OpenSSHVerifier;
+import br.com.crazycrowd.openssh.signature.SignaturePool;
+import br.com.crazycrowd.openssh.sshsig.SSHSig;
+import br.com.crazycrowd.openssh.sshsig.SSHSigVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies many signatures at once, splitting the batch over a work stealing
+ * ForkJoinPool.
+ * <p>
+ * Signatures are still verified one by one: true Ed25519 batch verification
+ * (checking many signature equations with a single multi-scalar
+ * multiplication) needs curve arithmetic eddsa 0.3.0 does not expose. What
+ * is batched instead is the per signer work, as described below.
+ * <p>
+ * Signer keys go through `OpenSSHKeyReader.readPublicKey()` and are kept in
+ * a LRU cache keyed by public key blob, so the same signer showing up again
+ * is neither parsed nor initialized again (verifier Signature instances are
+ * pooled per key as well, in a SignaturePool).
+ * <p>
+ * This class is thread safe. Close it to shut down its pool, unless pool was
+ * provided by caller.
+ */
+public class BatchSignatureVerifier implements AutoCloseable {
+
+  public static final int DEFAULT_KEY_CACHE_SIZE = 4096;
+
+  // Below this size, a task verifies its slice instead of splitting it
+  private static final int SPLIT_THRESHOLD = 32;
+  private static final byte[] ARMOR_PREFIX =
+      "-----BEGIN".getBytes(StandardCharsets.US_ASCII);
+
+  private final ForkJoinPool pool;
+  private final boolean ownsPool;
+  private final LruCache<ByteBuffer, PublicKey> keyCache;
+  private final AtomicLong keyCacheHitCount = new AtomicLong();
+  private final AtomicLong keyCacheMissCount = new AtomicLong();
+  private final OpenSSHVerifier verifier;
+  private final SSHSigVerifier sshSigVerifier;
+
+  /**
+   * Uses a new pool with one thread per available processor.
+   */
+  public BatchSignatureVerifier() {
+    this(
+        new ForkJoinPool(),
+        true,
+        DEFAULT_KEY_CACHE_SIZE,
+        new SignaturePool()
+    );
+  }
+
+  /**
+   * @param pool         Pool to run verifications. It is not shut down by
+   *                     `close()`
+   * @param keyCacheSize Max number of parsed signer keys kept in memory
+   */
+  public BatchSignatureVerifier(
+      final ForkJoinPool pool,
+      final int keyCacheSize
+  ) {
+    this(pool, false, keyCacheSize, new SignaturePool());
+  }
+
+  /**
+   * @param pool          Pool to run verifications. It is not shut down by
+   *                      `close()`
+   * @param keyCacheSize  Max number of parsed signer keys kept in memory
+   * @param signaturePool Pool of verifier Signature instances, possibly
+   *                      shared with other verifiers
+   */
+  public BatchSignatureVerifier(
+      final ForkJoinPool pool,
+      final int keyCacheSize,
+      final SignaturePool signaturePool
+  ) {
+    this(pool, false, keyCacheSize, signaturePool);
+  }
+
+  private BatchSignatureVerifier(
+      final ForkJoinPool pool,
+      final boolean ownsPool,
+      final int keyCacheSize,
+      final SignaturePool signaturePool
+  ) {
+    this.pool = pool;
+    this.ownsPool = ownsPool;
+    this.keyCache = new LruCache<>(keyCacheSize);
+    this.verifier = new OpenSSHVerifier(signaturePool);
+    this.sshSigVerifier = new SSHSigVerifier(verifier);
+  }
+
+  /**
+   * Verifies every request. A request that can not be verified at all
+   * (malformed signature or key, unsupported algorithm) is reported as
+   * invalid instead of failing the whole batch.
+   *
+   * @param requests Signatures to verify
+   * @return Verification result for each request, in the same order
+   */
+  public List<Boolean> verify(
+      final List<SignatureVerificationRequest> requests
+  ) {
+    final boolean[] results = new boolean[requests.size()];
+
+    pool.invoke(new VerifyTask(this, requests, results, 0, requests.size()));
+
+    final List<Boolean> resultList = new ArrayList<>(results.length);
+
+    for (final boolean result : results) {
+      resultList.add(result);
+    }
+
+    return resultList;
+  }
+
+  /**
+   * Verifies a single request on calling thread.
+   *
+   * @param request Signature to verify
+   * @return true if signature is valid
+   */
+  public boolean verify(
+      final SignatureVerificationRequest request
+  ) throws GeneralSecurityException {
+    final PublicKey publicKey = resolvePublicKey(request.publicKey);
+
+    if (startsWith(request.signature, ARMOR_PREFIX)) {
+      return sshSigVerifier.verify(
+          publicKey,
+          request.namespace,
+          request.message,
+          SSHSig.readSignature(SSHSig.dearmor(
+              new String(request.signature, StandardCharsets.US_ASCII)
+          ))
+      );
+    }
+
+    if (SSHSig.isSSHSig(request.signature)) {
+      return sshSigVerifier.verify(
+          publicKey,
+          request.namespace,
+          request.message,
+          SSHSig.readSignature(request.signature)
+      );
+    }
+
+    return verifier.verify(publicKey, request.message, request.signature);
+  }
+
+  /**
+   * @return Number of signer keys found already parsed in key cache
+   */
+  public long getKeyCacheHitCount() {
+    return keyCacheHitCount.get();
+  }
+
+  /**
+   * @return Number of signer keys parsed
+   */
+  public long getKeyCacheMissCount() {
+    return keyCacheMissCount.get();
+  }
+
+  @Override
+  public void close() {
+    if (ownsPool) {
+      pool.shutdown();
+    }
+  }
+
+  private boolean verifyQuietly(final SignatureVerificationRequest request) {
+    try {
+      return verify(request);
+    } catch (final GeneralSecurityException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Key is parsed outside cache lock: two threads may parse the same key
+   * concurrently on a miss, which is cheaper than serializing every miss.
+   */
+  private PublicKey resolvePublicKey(
+      final byte[] publicKeyBlob
+  ) throws GeneralSecurityException {
+    final ByteBuffer cacheKey = ByteBuffer.wrap(publicKeyBlob.clone());
+    final PublicKey cachedKey = keyCache.get(cacheKey);
+
+    if (cachedKey != null) {
+      keyCacheHitCount.incrementAndGet();
+      return cachedKey;
+    }
+
+    keyCacheMissCount.incrementAndGet();
+    final PublicKey publicKey =
+        OpenSSHKeyReader.getInstance().readPublicKey(publicKeyBlob);
+    keyCache.put(cacheKey, publicKey);
+
+    return publicKey;
+  }
+
+  private static boolean startsWith(final byte[] bytes, final byte[] prefix) {
+    if (bytes.length < prefix.length) {
+      return false;
+    }
+
+    for (int idx = 0; idx < prefix.length; idx++) {
+      if (bytes[idx] != prefix[idx]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static class VerifyTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BatchSignatureVerifier batchVerifier;
+    private final List<SignatureVerificationRequest> requests;
+    private final boolean[] results;
+    private final int start;
+    private final int end;
+
+    private VerifyTask(
+        final BatchSignatureVerifier batchVerifier,
+        final List<SignatureVerificationRequest> requests,
+        final boolean[] results,
+        final int start,
+        final int end
+    ) {
+      this.batchVerifier = batchVerifier;
+      this.requests = requests;
+      this.results = results;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= SPLIT_THRESHOLD) {
+        for (int idx = start; idx < end; idx++) {
+          results[idx] = batchVerifier.verifyQuietly(requests.get(idx));
+        }
+        return;
+      }
+
+      final int middle = (start + end) >>> 1;
+
+      invokeAll(
+          new VerifyTask(batchVerifier, requests, results, start, middle),
+          new VerifyTask(batchVerifier, requests, results, middle, end)
+      );
+    }
+
+  }
+
+}
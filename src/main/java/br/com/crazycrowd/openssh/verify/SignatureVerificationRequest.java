@@ -0,0 +1,50 @@
+package br.com.crazycrowd.openssh.verify;
+
+/**
+ * A single signature to check with BatchSignatureVerifier.
+ */
+public class SignatureVerificationRequest {
+
+  /**
+   * Signer public key blob, readable with `OpenSSHKeyReader.readPublicKey()`
+   */
+  public final byte[] publicKey;
+  public final byte[] message;
+
+  /**
+   * Either an SSHSIG blob (armored or not) or an OpenSSH signature blob
+   */
+  public final byte[] signature;
+
+  /**
+   * SSHSIG namespace. Ignored for OpenSSH signature blobs
+   */
+  public final String namespace;
+
+  /**
+   * Request for an OpenSSH signature blob over `message`.
+   */
+  public SignatureVerificationRequest(
+      final byte[] publicKey,
+      final byte[] message,
+      final byte[] signature
+  ) {
+    this(publicKey, message, signature, null);
+  }
+
+  /**
+   * Request for an SSHSIG signature over `message`.
+   */
+  public SignatureVerificationRequest(
+      final byte[] publicKey,
+      final byte[] message,
+      final byte[] signature,
+      final String namespace
+  ) {
+    this.publicKey = publicKey;
+    this.message = message;
+    this.signature = signature;
+    this.namespace = namespace;
+  }
+
+}
@@ -0,0 +1,59 @@
+package br.com.crazycrowd.openssh;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FrequencyAwareCacheTest {
+
+  @Test
+  public void keepsFrequentlyUsedEntries() {
+    final FrequencyAwareCache<String, String> cache =
+        new FrequencyAwareCache<>(2);
+
+    for (final String key : List.of("hot", "hot", "warm")) {
+      if (cache.get(key) == null) {
+        cache.put(key, key);
+      }
+    }
+
+    // A one-off key is not requested more often than least recently used one
+    cache.get("hot");
+    assertThat(cache.get("scan")).isNull();
+    assertThat(cache.put("scan", "scan")).isFalse();
+
+    assertThat(cache.get("warm")).isEqualTo("warm");
+    assertThat(cache.get("hot")).isEqualTo("hot");
+  }
+
+  @Test
+  public void replacesLeastRecentlyUsedEntryWithMoreFrequentKey() {
+    final FrequencyAwareCache<String, String> cache =
+        new FrequencyAwareCache<>(2);
+    cache.put("first", "first");
+    cache.put("second", "second");
+
+    cache.get("new");
+    cache.get("new");
+
+    assertThat(cache.put("new", "new")).isTrue();
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get("first")).isNull();
+    assertThat(cache.get("second")).isEqualTo("second");
+  }
+
+  @Test
+  public void removesMatchingEntries() {
+    final FrequencyAwareCache<String, String> cache =
+        new FrequencyAwareCache<>(4);
+    cache.put("a1", "a1");
+    cache.put("a2", "a2");
+    cache.put("b1", "b1");
+
+    assertThat(cache.removeIf(key -> key.startsWith("a"))).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+}
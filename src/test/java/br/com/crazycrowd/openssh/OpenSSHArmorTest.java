@@ -0,0 +1,36 @@
+package br.com.crazycrowd.openssh;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenSSHArmorTest {
+
+  @Test
+  public void wrapsBase64AtLineLength() {
+    assertThat(OpenSSHArmor.armor("BEGIN", "END", new byte[0]))
+        .isEqualTo("BEGIN\nEND\n");
+
+    // Sizes around chunk boundaries, with every padding length
+    for (int size = 1; size < 320; size++) {
+      final byte[] blob = new byte[size];
+      Arrays.fill(blob, (byte) size);
+
+      final String[] lines =
+          OpenSSHArmor.armor("BEGIN", "END", blob).split("\n");
+      final String base64 = Arrays.stream(lines, 1, lines.length - 1)
+          .collect(Collectors.joining());
+
+      assertThat(lines[0]).isEqualTo("BEGIN");
+      assertThat(lines[lines.length - 1]).isEqualTo("END");
+      assertThat(Arrays.copyOfRange(lines, 1, lines.length - 2))
+          .allMatch(line -> line.length() == OpenSSHArmor.LINE_LENGTH);
+      assertThat(Base64.getDecoder().decode(base64)).isEqualTo(blob);
+    }
+  }
+
+}
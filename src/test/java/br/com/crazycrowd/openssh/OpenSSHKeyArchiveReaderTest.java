@@ -0,0 +1,191 @@
+package br.com.crazycrowd.openssh;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenSSHKeyArchiveReaderTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHKeyArchiveReader reader =
+      OpenSSHKeyArchiveReader.getInstance();
+
+  @Test
+  public void readsKeysFromZip() throws Exception {
+    assertThat(readArchive("keys.zip")).containsOnlyKeys(
+        "export/ed25519_with_passphrase.key",
+        "export/ed25519_without_passphrase.key"
+    );
+  }
+
+  @Test
+  public void readsKeysFromTarGz() throws Exception {
+    assertThat(readArchive("keys.tar.gz")).containsOnlyKeys(
+        "export/ed25519_with_passphrase.key",
+        "export/ed25519_without_passphrase.key"
+    );
+  }
+
+  @Test
+  public void readsKeysFromTar() throws Exception {
+    final Map<String, List<KeyPair>> keys = new LinkedHashMap<>();
+
+    reader.readArchive(
+        new ByteArrayInputStream(readTar()),
+        name -> name.contains("with_passphrase") ? "ed25519123" : null,
+        keys::put
+    );
+
+    assertThat(keys).containsOnlyKeys(
+        "export/ed25519_with_passphrase.key",
+        "export/ed25519_without_passphrase.key"
+    );
+  }
+
+  @Test
+  public void readsEmptyZip() throws Exception {
+    final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+    new ZipOutputStream(zip).close();
+
+    final Map<String, List<KeyPair>> keys = new LinkedHashMap<>();
+    reader.readArchive(
+        new ByteArrayInputStream(zip.toByteArray()),
+        name -> null,
+        keys::put
+    );
+
+    assertThat(keys).isEmpty();
+  }
+
+  @Test
+  public void doesNotCloseArchiveStream() throws Exception {
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    try (InputStream in = Files.newInputStream(resources.resolve("keys.zip"))) {
+      reader.readArchive(
+          new FilterInputStream(in) {
+            @Override
+            public void close() {
+              closed.set(true);
+            }
+          },
+          name -> name.contains("with_passphrase") ? "ed25519123" : null,
+          (name, keyPairs) -> {
+          }
+      );
+    }
+
+    assertThat(closed).isFalse();
+  }
+
+  @Test
+  public void rejectsDeeplyNestedGzip() throws Exception {
+    // keys.tar.gz gzipped twice more
+    byte[] archive = Files.readAllBytes(resources.resolve("keys.tar.gz"));
+
+    for (int layer = 0; layer < 2; layer++) {
+      final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+
+      try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+        out.write(archive);
+      }
+
+      archive = gzip.toByteArray();
+    }
+
+    final byte[] nested = archive;
+
+    assertThatThrownBy(() -> reader.readArchive(
+        new ByteArrayInputStream(nested),
+        name -> null,
+        (name, keyPairs) -> {
+        }
+    )).isInstanceOf(IOException.class)
+        .hasMessageContaining("nested gzip");
+  }
+
+  @Test
+  public void rejectsOversizedTarEntry() {
+    assertThatThrownBy(() -> reader.readArchive(
+        new ByteArrayInputStream(tarHeader("77777777777")),
+        entryName -> null,
+        (entryName, keyPairs) -> {
+        }
+    )).isInstanceOf(IOException.class)
+        .hasMessageContaining("size out of bounds");
+  }
+
+  @Test
+  public void rejectsMalformedTarEntrySize() {
+    assertThatThrownBy(() -> reader.readArchive(
+        new ByteArrayInputStream(tarHeader("12x4")),
+        entryName -> null,
+        (entryName, keyPairs) -> {
+        }
+    )).isInstanceOf(IOException.class)
+        .hasMessageContaining("Malformed tar header");
+  }
+
+  private byte[] tarHeader(final String octalSize) {
+    final byte[] header = new byte[512];
+    final byte[] name = "huge.key".getBytes(StandardCharsets.US_ASCII);
+    final byte[] size = octalSize.getBytes(StandardCharsets.US_ASCII);
+    final byte[] magic = "ustar".getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(name, 0, header, 0, name.length);
+    System.arraycopy(size, 0, header, 124, size.length);
+    header[156] = 'x';
+    System.arraycopy(magic, 0, header, 257, magic.length);
+
+    return header;
+  }
+
+  /**
+   * Plain tar, from the keys.tar.gz resource.
+   */
+  private byte[] readTar() throws IOException {
+    try (InputStream in = new GZIPInputStream(
+        Files.newInputStream(resources.resolve("keys.tar.gz"))
+    )) {
+      return in.readAllBytes();
+    }
+  }
+
+  private Map<String, List<KeyPair>> readArchive(
+      final String archiveName
+  ) throws Exception {
+    final Map<String, List<KeyPair>> keys = new LinkedHashMap<>();
+
+    try (InputStream in = Files.newInputStream(resources.resolve(archiveName))) {
+      reader.readArchive(
+          in,
+          name -> name.contains("with_passphrase") ? "ed25519123" : null,
+          keys::put
+      );
+    }
+
+    for (final List<KeyPair> keyPairs : keys.values()) {
+      assertThat(keyPairs).hasSize(1);
+    }
+
+    return keys;
+  }
+
+}
@@ -0,0 +1,105 @@
+package br.com.crazycrowd.openssh;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenSSHKeyFileCacheTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHKeyReader reader = OpenSSHKeyReader.getInstance();
+
+  @TempDir
+  Path tempDir;
+
+  @AfterEach
+  public void removeCache() {
+    reader.setFileCache(null);
+  }
+
+  @Test
+  public void returnsSameKeysForUnchangedFile() throws Exception {
+    final OpenSSHKeyFileCache cache = new OpenSSHKeyFileCache();
+    reader.setFileCache(cache);
+    final Path keyFile = copy("ed25519_with_passphrase.key");
+
+    final List<KeyPair> first = reader.readFile(keyFile, "ed25519123");
+    final List<KeyPair> second = reader.readFile(keyFile, "ed25519123");
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+
+    assertThatThrownBy(() -> reader.readFile(keyFile, "wrong"))
+        .isInstanceOf(RuntimeException.class);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void readsChangedFileAgain() throws Exception {
+    reader.setFileCache(new OpenSSHKeyFileCache());
+    final Path keyFile = copy("ed25519_with_passphrase.key");
+    final List<KeyPair> first = reader.readFile(keyFile, "ed25519123");
+
+    Files.copy(
+        resources.resolve("ed25519_without_passphrase.key"),
+        keyFile,
+        StandardCopyOption.REPLACE_EXISTING
+    );
+    Files.setLastModifiedTime(
+        keyFile,
+        FileTime.from(Instant.now().plusSeconds(60))
+    );
+
+    final List<KeyPair> second = reader.readFile(keyFile);
+
+    assertThat(second.get(0).getPublic().getEncoded())
+        .isNotEqualTo(first.get(0).getPublic().getEncoded());
+  }
+
+  @Test
+  public void invalidatesEveryPassphraseOfFile() throws Exception {
+    final OpenSSHKeyFileCache cache = new OpenSSHKeyFileCache();
+    reader.setFileCache(cache);
+    final Path keyFile = copy("ed25519_without_passphrase.key");
+
+    final List<KeyPair> first = reader.readFile(keyFile);
+    reader.readFile(keyFile, "ignored");
+    assertThat(cache.size()).isEqualTo(2);
+
+    assertThat(cache.invalidate(keyFile)).isEqualTo(2);
+    assertThat(reader.readFile(keyFile)).isNotSameAs(first);
+  }
+
+  @Test
+  public void invalidatesDeletedFile() throws Exception {
+    final OpenSSHKeyFileCache cache = new OpenSSHKeyFileCache();
+    reader.setFileCache(cache);
+    final Path keyFile = copy("ed25519_without_passphrase.key");
+    final Path link = Files.createSymbolicLink(tempDir.resolve("link"), keyFile);
+
+    reader.readFile(keyFile);
+    reader.readFile(link, "other");
+    Files.delete(keyFile);
+
+    assertThat(cache.invalidate(link)).isEqualTo(1);
+    assertThat(cache.invalidate(keyFile)).isEqualTo(1);
+    assertThat(cache.size()).isZero();
+  }
+
+  private Path copy(final String fixture) throws Exception {
+    return Files.copy(resources.resolve(fixture), tempDir.resolve(fixture));
+  }
+
+}
@@ -0,0 +1,86 @@
+package br.com.crazycrowd.openssh;
+
+import br.com.crazycrowd.openssh.certs.OpenSSHCertificate;
+import br.com.crazycrowd.openssh.certs.OpenSSHCertificateReader;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenSSHKeyInternerTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHKeyReader reader = OpenSSHKeyReader.getInstance();
+  private static final OpenSSHKeyInterner defaultInterner =
+      reader.getKeyInterner();
+
+  @AfterEach
+  public void restoreInterner() {
+    reader.setKeyInterner(defaultInterner);
+  }
+
+  @Test
+  public void sharesKeysReadFromDifferentFiles(
+      @TempDir final Path tempDir
+  ) throws Exception {
+    final Path keyFile = resources.resolve("ed25519_with_passphrase.key");
+    final Path copy = Files.copy(keyFile, tempDir.resolve("backup.key"));
+
+    final KeyPair keyPair = reader.readFile(keyFile, "ed25519123").get(0);
+    final KeyPair copyKeyPair = reader.readFile(copy, "ed25519123").get(0);
+
+    assertThat(copyKeyPair.getPublic()).isSameAs(keyPair.getPublic());
+    assertThat(copyKeyPair.getPrivate()).isNotSameAs(keyPair.getPrivate());
+    assertThat(reader.readFilePublicKeys(copy).get(0))
+        .isSameAs(keyPair.getPublic());
+  }
+
+  @Test
+  public void sharesCertifiedKeys() throws Exception {
+    final KeyPair keyPair =
+        reader.readFile(resources.resolve("ed25519_user.key")).get(0);
+    final OpenSSHCertificate certificate = OpenSSHCertificateReader
+        .getInstance()
+        .readFile(resources.resolve("ed25519_user.key-cert.pub"));
+
+    assertThat(certificate.publicKey).isSameAs(keyPair.getPublic());
+  }
+
+  @Test
+  public void doesNotSharePrivateKeys() throws Exception {
+    final Path keyFile = resources.resolve("ed25519_without_passphrase.key");
+    final KeyPair keyPair = reader.readFile(keyFile).get(0);
+    final KeyPair otherKeyPair = reader.readFile(keyFile).get(0);
+
+    assertThat(otherKeyPair.getPrivate()).isNotSameAs(keyPair.getPrivate());
+
+    // eddsa exposes its internal seed array: wiping it must stay local
+    Arrays.fill(((EdDSAPrivateKey) keyPair.getPrivate()).getSeed(), (byte) 0);
+
+    assertThat(otherKeyPair.getPrivate())
+        .isNotEqualTo(keyPair.getPrivate());
+    assertThat(((EdDSAPrivateKey) otherKeyPair.getPrivate()).getSeed())
+        .isNotEqualTo(new byte[32]);
+  }
+
+  @Test
+  public void buildsNewKeysWithoutInterner() throws Exception {
+    final Path keyFile = resources.resolve("ed25519_without_passphrase.key");
+    reader.setKeyInterner(null);
+
+    final KeyPair keyPair = reader.readFile(keyFile).get(0);
+    final KeyPair otherKeyPair = reader.readFile(keyFile).get(0);
+
+    assertThat(otherKeyPair.getPublic()).isNotSameAs(keyPair.getPublic());
+    assertThat(otherKeyPair.getPublic()).isEqualTo(keyPair.getPublic());
+    assertThat(otherKeyPair.getPrivate()).isNotSameAs(keyPair.getPrivate());
+  }
+
+}
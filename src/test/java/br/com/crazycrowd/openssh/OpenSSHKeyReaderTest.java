@@ -1,19 +1,28 @@
 package br.com.crazycrowd.openssh;
 
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
 import net.i2p.crypto.eddsa.EdDSASecurityProvider;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.*;
+import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class OpenSSHKeyReaderTest {
 
@@ -63,6 +72,143 @@ public class OpenSSHKeyReaderTest {
     assertKeysMatch("NONEwithEdDSA", keyPairs.get(0));
   }
 
+  @Test
+  public void readsEd25519KeyFromStream() throws Exception {
+    final String testKeyName = "ed25519_with_passphrase.key";
+    final List<KeyPair> keyPairs;
+
+    try (InputStream in = Files.newInputStream(resources.resolve(testKeyName))) {
+      keyPairs = reader.read(in, "ed25519123");
+    }
+
+    assertThat(keyPairs).hasSize(1);
+    assertKeysMatch("NONEwithEdDSA", keyPairs.get(0));
+  }
+
+  @Test
+  public void readsEd25519KeyFromChannel() throws Exception {
+    final String testKeyName = "ed25519_without_passphrase.key";
+    final List<KeyPair> keyPairs;
+
+    try (FileChannel channel = FileChannel.open(resources.resolve(testKeyName))) {
+      keyPairs = reader.read(channel);
+    }
+
+    assertThat(keyPairs).hasSize(1);
+    assertKeysMatch("NONEwithEdDSA", keyPairs.get(0));
+  }
+
+  @Test
+  public void readsEd25519KeyFromBuffer() throws Exception {
+    final String testKeyName = "ed25519_without_passphrase.key";
+    final ByteBuffer content =
+        ByteBuffer.wrap(Files.readAllBytes(resources.resolve(testKeyName)));
+
+    final List<KeyPair> keyPairs = reader.read(content);
+
+    assertThat(keyPairs).hasSize(1);
+    assertThat(content.position()).isZero();
+    assertKeysMatch("NONEwithEdDSA", keyPairs.get(0));
+  }
+
+  @Test
+  public void rejectsGarbageInsideArmor() throws Exception {
+    final String content = Files.readString(
+        resources.resolve("ed25519_without_passphrase.key")
+    );
+    final int secondLine = content.indexOf('\n') + 1;
+    final String corrupted = content.substring(0, secondLine) + "*" +
+        content.substring(secondLine);
+
+    assertThatThrownBy(() -> reader.read(ByteBuffer.wrap(corrupted.getBytes())))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsNonBlockingChannel() throws Exception {
+    final Pipe pipe = Pipe.open();
+
+    try (Pipe.SourceChannel source = pipe.source();
+         Pipe.SinkChannel ignored = pipe.sink()) {
+      source.configureBlocking(false);
+
+      assertThatThrownBy(() -> reader.read(source))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  public void buildsEd25519PrivateKeyFromStoredPublicKey() throws Exception {
+    final KeyPair keyPair = reader
+        .readFile(resources.resolve("ed25519_with_passphrase.key"), "ed25519123")
+        .get(0);
+    final EdDSAPrivateKey privateKey = (EdDSAPrivateKey) keyPair.getPrivate();
+    final EdDSAPrivateKey derivedPrivateKey = new EdDSAPrivateKey(
+        new EdDSAPrivateKeySpec(privateKey.getSeed(), privateKey.getParams())
+    );
+
+    assertThat(privateKey.getH()).isEqualTo(derivedPrivateKey.getH());
+    assertThat(privateKey.geta()).isEqualTo(derivedPrivateKey.geta());
+    assertThat(privateKey.getAbyte()).isEqualTo(derivedPrivateKey.getAbyte());
+  }
+
+  @Test
+  public void rejectsEd25519KeyWithMismatchedPublicKey() throws Exception {
+    final byte[] decoded = readDecodedWithoutPassphrase();
+    final byte[] publicKeyBytes = ((EdDSAPublicKey) reader
+        .read(ByteBuffer.wrap(decoded)).get(0).getPublic()).getAbyte();
+
+    // Last copy of public key is the one following seed
+    decoded[lastIndexOf(decoded, publicKeyBytes)] ^= 1;
+
+    assertThatThrownBy(() -> reader.read(ByteBuffer.wrap(decoded)))
+        .isInstanceOf(InvalidKeySpecException.class);
+  }
+
+  @Test
+  public void rejectsEd25519KeyWithCorruptedSeed() throws Exception {
+    final byte[] decoded = readDecodedWithoutPassphrase();
+    final byte[] publicKeyBytes = ((EdDSAPublicKey) reader
+        .read(ByteBuffer.wrap(decoded)).get(0).getPublic()).getAbyte();
+
+    // Seed is right before last copy of public key
+    decoded[lastIndexOf(decoded, publicKeyBytes) - 1] ^= 1;
+
+    assertThatThrownBy(() -> reader.read(ByteBuffer.wrap(decoded)))
+        .isInstanceOf(InvalidKeySpecException.class);
+    assertThat(OpenSSHKeyReader.getInstanceWithoutPublicKeyCheck()
+        .read(ByteBuffer.wrap(decoded))).hasSize(1);
+  }
+
+  @Test
+  public void readsEd25519KeyWithoutPublicKeyCheck() throws Exception {
+    assertKeysMatch(
+        "NONEwithEdDSA",
+        OpenSSHKeyReader.getInstanceWithoutPublicKeyCheck()
+            .read(ByteBuffer.wrap(readDecodedWithoutPassphrase()))
+            .get(0)
+    );
+  }
+
+  private byte[] readDecodedWithoutPassphrase() throws IOException {
+    return OpenSSHKeyFileParser.readFileBytesDecoded(
+        resources.resolve("ed25519_without_passphrase.key")
+    );
+  }
+
+  private int lastIndexOf(final byte[] array, final byte[] target) {
+    for (int idx = array.length - target.length; idx >= 0; idx--) {
+      if (Arrays.equals(
+          array, idx, idx + target.length,
+          target, 0, target.length
+      )) {
+        return idx;
+      }
+    }
+
+    throw new AssertionError("Bytes not found");
+  }
+
   private void assertPublicKeyIsReadCorrectly(
       final String publicKeyPrefix,
       final String publicKeyFile,
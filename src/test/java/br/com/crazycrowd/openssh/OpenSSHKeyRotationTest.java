@@ -0,0 +1,106 @@
+package br.com.crazycrowd.openssh;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenSSHKeyRotationTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHKeyReader reader = OpenSSHKeyReader.getInstance();
+
+  @Test
+  public void rotatesDirectoryPassphrase(
+      @TempDir final Path tempDir
+  ) throws Exception {
+    final KeyPair keyPair = reader
+        .readFile(resources.resolve("ed25519_with_passphrase.key"), "ed25519123")
+        .get(0);
+
+    for (int idx = 0; idx < 8; idx++) {
+      OpenSSHKeyWriter.getInstance().writeFile(
+          tempDir.resolve("key" + idx),
+          List.of(new OpenSSHKeyEntry(keyPair, "key" + idx)),
+          OpenSSHKeyWriteOptions.encrypted("old", 2)
+      );
+    }
+
+    Files.copy(
+        resources.resolve("ed25519_with_passphrase.key"),
+        tempDir.resolve("other_passphrase")
+    );
+    Files.writeString(tempDir.resolve("notes.txt"), "not a key");
+
+    final OpenSSHKeyRotationResult result;
+
+    try (OpenSSHKeyRotation rotation = new OpenSSHKeyRotation(4)) {
+      result = rotation.rotateDirectory(
+          tempDir,
+          "old",
+          OpenSSHKeyWriteOptions.encrypted("new", 4)
+      );
+    }
+
+    assertThat(result.rotated).hasSize(8);
+    assertThat(result.skipped).containsExactly(tempDir.resolve("notes.txt"));
+    assertThat(result.failed)
+        .containsOnlyKeys(tempDir.resolve("other_passphrase"));
+
+    for (final Path file : result.rotated) {
+      final List<OpenSSHKeyEntry> entries = reader.readFileEntries(file, "new");
+      assertThat(entries.get(0).comment)
+          .isEqualTo(file.getFileName().toString());
+    }
+
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertThat(files).hasSize(10);
+    }
+  }
+
+  @Test
+  public void reportsPendingFilesWhenInterrupted(
+      @TempDir final Path tempDir
+  ) throws Exception {
+    final KeyPair keyPair = reader
+        .readFile(resources.resolve("ed25519_without_passphrase.key"))
+        .get(0);
+    final List<Path> files = new ArrayList<>();
+
+    for (int idx = 0; idx < 8; idx++) {
+      final Path file = tempDir.resolve("key" + idx);
+      OpenSSHKeyWriter.getInstance().writeFile(
+          file,
+          List.of(new OpenSSHKeyEntry(keyPair, "key" + idx)),
+          OpenSSHKeyWriteOptions.encrypted("old", 16)
+      );
+      files.add(file);
+    }
+
+    final OpenSSHKeyRotationResult result;
+
+    try (OpenSSHKeyRotation rotation = new OpenSSHKeyRotation(1)) {
+      Thread.currentThread().interrupt();
+      result = rotation.rotateFiles(
+          files,
+          "old",
+          OpenSSHKeyWriteOptions.encrypted("new", 16)
+      );
+    } finally {
+      assertThat(Thread.interrupted()).isTrue();
+    }
+
+    assertThat(result.failed).isNotEmpty();
+    assertThat(result.rotated.size() + result.failed.size()).isEqualTo(8);
+    assertThat(result.failed.values())
+        .allMatch(e -> e instanceof InterruptedException);
+  }
+
+}
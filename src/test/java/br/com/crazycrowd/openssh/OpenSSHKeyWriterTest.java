@@ -0,0 +1,112 @@
+package br.com.crazycrowd.openssh;
+
+import br.com.crazycrowd.openssh.decrypter.OpenSSHCipher;
+import br.com.crazycrowd.openssh.kdf.OpenSSHKDFType;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenSSHKeyWriterTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHKeyReader reader = OpenSSHKeyReader.getInstance();
+  private static final OpenSSHKeyWriter writer = OpenSSHKeyWriter.getInstance();
+
+  @Test
+  public void writesUnencryptedKeyReadableByReader() throws Exception {
+    final KeyPair keyPair = readFixture();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    writer.writeEntries(
+        List.of(new OpenSSHKeyEntry(keyPair, "user@host")),
+        OpenSSHKeyWriteOptions.unencrypted(),
+        Channels.newChannel(out)
+    );
+
+    final String armored = out.toString(StandardCharsets.US_ASCII);
+    assertThat(armored)
+        .startsWith(OpenSSHKeyWriter.BEGIN_PRIVATE_KEY + "\n")
+        .endsWith(OpenSSHKeyWriter.END_PRIVATE_KEY + "\n");
+
+    final List<KeyPair> keyPairs =
+        reader.read(ByteBuffer.wrap(out.toByteArray()));
+    assertSameKey(keyPairs.get(0), keyPair);
+  }
+
+  @Test
+  public void writesEncryptedFileKeepingComments(
+      @TempDir final Path tempDir
+  ) throws Exception {
+    final KeyPair keyPair = readFixture();
+    final Path keyFile = tempDir.resolve("id_ed25519");
+
+    writer.writeFile(
+        keyFile,
+        List.of(
+            new OpenSSHKeyEntry(keyPair, "first"),
+            new OpenSSHKeyEntry(keyPair, "second")
+        ),
+        OpenSSHKeyWriteOptions.encrypted("new passphrase", 4)
+    );
+
+    final List<OpenSSHKeyEntry> entries =
+        reader.readFileEntries(keyFile, "new passphrase");
+    assertThat(entries).extracting(entry -> entry.comment)
+        .containsExactly("first", "second");
+    assertSameKey(entries.get(1).keyPair, keyPair);
+    assertThat(PosixFilePermissions.toString(
+        Files.getPosixFilePermissions(keyFile)
+    )).isEqualTo("rw-------");
+
+    assertThatThrownBy(() -> reader.readFile(keyFile, "wrong passphrase"))
+        .isInstanceOf(RuntimeException.class);
+  }
+
+  @Test
+  public void rejectsUnsupportedCipher() throws Exception {
+    final OpenSSHKeyWriteOptions options = new OpenSSHKeyWriteOptions(
+        OpenSSHCipher.AES_128_GCM,
+        OpenSSHKDFType.BCRYPT,
+        4,
+        "passphrase"
+    );
+
+    assertThatThrownBy(() -> writer.writeBytes(
+        List.of(new OpenSSHKeyEntry(readFixture(), "")),
+        options
+    )).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void rejectsNonPositiveRounds() {
+    assertThatThrownBy(() -> OpenSSHKeyWriteOptions.encrypted("passphrase", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private KeyPair readFixture() throws Exception {
+    return reader
+        .readFile(resources.resolve("ed25519_with_passphrase.key"), "ed25519123")
+        .get(0);
+  }
+
+  private void assertSameKey(final KeyPair actual, final KeyPair expected) {
+    assertThat(actual.getPublic().getEncoded())
+        .isEqualTo(expected.getPublic().getEncoded());
+    assertThat(((EdDSAPrivateKey) actual.getPrivate()).getSeed())
+        .isEqualTo(((EdDSAPrivateKey) expected.getPrivate()).getSeed());
+  }
+
+}
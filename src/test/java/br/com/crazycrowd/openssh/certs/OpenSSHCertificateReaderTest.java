@@ -0,0 +1,68 @@
+package br.com.crazycrowd.openssh.certs;
+
+import br.com.crazycrowd.openssh.keys.OpenSSHAsymmetricKeyType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class OpenSSHCertificateReaderTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHCertificateReader reader =
+      OpenSSHCertificateReader.getInstance();
+
+  @Test
+  public void readsEd25519UserCertificate() throws Exception {
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+
+    assertThat(certificate.keyType).isEqualTo(OpenSSHAsymmetricKeyType.ED25519);
+    assertThat(certificate.nonce).hasSize(32);
+    assertThat(certificate.serial).isEqualTo(42);
+    assertThat(certificate.type).isEqualTo(OpenSSHCertificateType.USER);
+    assertThat(certificate.keyId).isEqualTo("test-user");
+    assertThat(certificate.validPrincipals).containsExactly("alice", "bob");
+    assertThat(certificate.criticalOptions)
+        .containsExactly(entry("force-command", "/bin/true"));
+    assertThat(certificate.extensions).containsOnlyKeys(
+        "permit-X11-forwarding",
+        "permit-agent-forwarding",
+        "permit-pty",
+        "permit-user-rc"
+    );
+  }
+
+  @Test
+  public void checksValidityInterval() throws Exception {
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+
+    assertThat(certificate.isValidAt(Instant.parse("2019-12-31T23:59:59Z")))
+        .isFalse();
+    assertThat(certificate.isValidAt(Instant.parse("2020-01-01T00:00:00Z")))
+        .isTrue();
+    assertThat(certificate.isValidAt(Instant.parse("2099-12-31T00:00:00Z")))
+        .isFalse();
+    assertThat(certificate.isValidFor("alice")).isTrue();
+    assertThat(certificate.isValidFor("mallory")).isFalse();
+  }
+
+  @Test
+  public void rejectsTrailingBytesAfterSignature() throws Exception {
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+    final byte[] certificateBytes =
+        Arrays.copyOf(certificate.encoded, certificate.encoded.length + 1);
+
+    assertThatThrownBy(() -> reader.readBytes(certificateBytes))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Trailing bytes");
+  }
+
+}
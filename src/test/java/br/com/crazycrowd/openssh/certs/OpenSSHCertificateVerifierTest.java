@@ -0,0 +1,101 @@
+package br.com.crazycrowd.openssh.certs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenSSHCertificateVerifierTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHCertificateReader reader =
+      OpenSSHCertificateReader.getInstance();
+
+  @Test
+  public void verifiesCertificateSignedByTrustedCa() throws Exception {
+    final OpenSSHCertificateVerifier verifier =
+        new OpenSSHCertificateVerifier();
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+    final byte[] caKey = readPublicKeyBlob("ed25519_ca.key.pub");
+
+    assertThat(verifier.verify(certificate, caKey)).isTrue();
+    // Second call is answered from cache
+    assertThat(verifier.verify(certificate, caKey)).isTrue();
+    assertThat(verifier.getMissCount()).isEqualTo(1);
+    assertThat(verifier.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void doesNotReuseVerdictForDifferentSignedBytes() throws Exception {
+    final OpenSSHCertificateVerifier verifier =
+        new OpenSSHCertificateVerifier();
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+    final byte[] caKey = readPublicKeyBlob("ed25519_ca.key.pub");
+    assertThat(verifier.verify(certificate, caKey)).isTrue();
+
+    final byte[] forgedSignedBytes = certificate.signedBytes.clone();
+    // First nonce byte, while encoded still matches verified certificate
+    forgedSignedBytes[40] ^= 1;
+    final OpenSSHCertificate forged = new OpenSSHCertificate(
+        certificate.keyType,
+        certificate.nonce,
+        certificate.publicKey,
+        certificate.serial,
+        certificate.type,
+        certificate.keyId,
+        certificate.validPrincipals,
+        certificate.validAfter,
+        certificate.validBefore,
+        certificate.criticalOptions,
+        certificate.extensions,
+        certificate.signatureKey,
+        certificate.signature,
+        forgedSignedBytes,
+        certificate.encoded
+    );
+
+    assertThat(verifier.verify(forged, caKey)).isFalse();
+    assertThat(verifier.getHitCount()).isZero();
+  }
+
+  @Test
+  public void rejectsCertificateFromAnotherCa() throws Exception {
+    final OpenSSHCertificateVerifier verifier =
+        new OpenSSHCertificateVerifier();
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+    final byte[] otherKey = readPublicKeyBlob("ed25519_user.key.pub");
+
+    assertThat(verifier.verify(certificate, otherKey)).isFalse();
+  }
+
+  @Test
+  public void rejectsTamperedCertificate() throws Exception {
+    final OpenSSHCertificateVerifier verifier =
+        new OpenSSHCertificateVerifier();
+    final OpenSSHCertificate certificate =
+        reader.readFile(resources.resolve("ed25519_user.key-cert.pub"));
+
+    final byte[] tamperedBytes = certificate.encoded.clone();
+    // First nonce byte: type string (4 + 32 bytes) + nonce length (4 bytes)
+    tamperedBytes[40] ^= 1;
+
+    final OpenSSHCertificate tampered = reader.readBytes(tamperedBytes);
+
+    assertThat(verifier.verify(tampered)).isFalse();
+  }
+
+  private byte[] readPublicKeyBlob(final String fileName) throws IOException {
+    final String[] fields =
+        Files.readString(resources.resolve(fileName)).trim().split(" ");
+
+    return Base64.getDecoder().decode(fields[1]);
+  }
+
+}
@@ -0,0 +1,157 @@
+package br.com.crazycrowd.openssh.kdf;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KDFGovernorTest {
+
+  @Test
+  public void rejectsWhenQueueIsFull() throws Exception {
+    final KDFGovernor governor = new KDFGovernor(1, 0, null);
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(1);
+
+    final Thread holder = startHolding(governor, running, finish);
+
+    assertThatThrownBy(() -> governor.run(16, () -> "never"))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(governor.getRejectedCount()).isEqualTo(1);
+
+    finish.countDown();
+    holder.join();
+
+    assertThat(governor.run(16, () -> "ran")).isEqualTo("ran");
+    assertThat(governor.getCompletedCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void timesOutWaitingForPermit() throws Exception {
+    final KDFGovernor governor =
+        new KDFGovernor(1, 10, Duration.ofMillis(50));
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(1);
+
+    final Thread holder = startHolding(governor, running, finish);
+
+    assertThatThrownBy(() -> governor.run(16, () -> "never"))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(governor.getTimedOutCount()).isEqualTo(1);
+    assertThat(governor.getQueueDepth()).isZero();
+
+    finish.countDown();
+    holder.join();
+  }
+
+  @Test
+  public void runsCheaperDerivationsFirst() throws Exception {
+    final KDFGovernor governor = new KDFGovernor(1, 10, null);
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(1);
+    final List<Integer> order = new CopyOnWriteArrayList<>();
+
+    final Thread holder = startHolding(governor, running, finish);
+    final Thread expensive = startQueued(governor, 64, order);
+    awaitQueueDepth(governor, 1);
+    final Thread cheap = startQueued(governor, 16, order);
+    awaitQueueDepth(governor, 2);
+
+    finish.countDown();
+    holder.join();
+    expensive.join();
+    cheap.join();
+
+    assertThat(order).containsExactly(16, 64);
+    assertThat(governor.getActiveCount()).isZero();
+  }
+
+  @Test
+  public void runsBypassedExpensiveDerivationEventually() throws Exception {
+    final KDFGovernor governor = new KDFGovernor(1, 100, null);
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(1);
+    final List<Integer> order = new CopyOnWriteArrayList<>();
+
+    final Thread holder = startHolding(governor, running, finish);
+    final Thread expensive = startQueued(governor, 64, order);
+    awaitQueueDepth(governor, 1);
+
+    final int cheapCount = KDFGovernor.MAX_BYPASSES + 4;
+    final Thread[] cheap = new Thread[cheapCount];
+
+    for (int idx = 0; idx < cheapCount; idx++) {
+      cheap[idx] = startQueued(governor, 16, order);
+      awaitQueueDepth(governor, idx + 2);
+    }
+
+    finish.countDown();
+    holder.join();
+    expensive.join();
+
+    for (final Thread thread : cheap) {
+      thread.join();
+    }
+
+    assertThat(order.indexOf(64)).isEqualTo(KDFGovernor.MAX_BYPASSES);
+  }
+
+  @Test
+  public void defaultGovernorIsBounded() {
+    final KDFGovernor governor = new KDFGovernor();
+
+    assertThat(governor.getPermits()).isEqualTo(KDFGovernor.DEFAULT_PERMITS);
+    assertThat(governor.getMaxQueueSize())
+        .isEqualTo(KDFGovernor.DEFAULT_MAX_QUEUE_SIZE)
+        .isLessThan(Integer.MAX_VALUE);
+    assertThat(governor.getTimeout()).isEqualTo(KDFGovernor.DEFAULT_TIMEOUT);
+  }
+
+  private Thread startHolding(
+      final KDFGovernor governor,
+      final CountDownLatch running,
+      final CountDownLatch finish
+  ) throws InterruptedException {
+    final Thread thread = new Thread(() -> governor.run(16, () -> {
+      running.countDown();
+      try {
+        return finish.await(10, TimeUnit.SECONDS);
+      } catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }));
+    thread.start();
+    running.await();
+
+    return thread;
+  }
+
+  private Thread startQueued(
+      final KDFGovernor governor,
+      final int rounds,
+      final List<Integer> order
+  ) {
+    final Thread thread =
+        new Thread(() -> governor.run(rounds, () -> order.add(rounds)));
+    thread.start();
+
+    return thread;
+  }
+
+  private void awaitQueueDepth(
+      final KDFGovernor governor,
+      final int depth
+  ) throws InterruptedException {
+    while (governor.getQueueDepth() < depth) {
+      Thread.sleep(5);
+    }
+  }
+
+}
@@ -0,0 +1,168 @@
+package br.com.crazycrowd.openssh.keystore;
+
+import br.com.crazycrowd.openssh.OpenSSHKeyEntry;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriteOptions;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.kdf.BCryptKDF;
+import br.com.crazycrowd.openssh.kdf.KDFGovernor;
+import net.i2p.crypto.eddsa.KeyPairGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.UnrecoverableKeyException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenSSHKeyStoreSpiTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHProvider provider = new OpenSSHProvider();
+
+  @TempDir
+  Path keysDir;
+
+  @BeforeEach
+  public void copyKeys() throws Exception {
+    Files.copy(
+        resources.resolve("ed25519_with_passphrase.key"),
+        keysDir.resolve("ed25519_with_passphrase.key")
+    );
+    Files.writeString(
+        keysDir.resolve("ed25519_with_passphrase.key.pub"),
+        Files.readString(resources.resolve("ed25519_with_passphrase.key.pub"))
+            .trim() + " deploy@example\n"
+    );
+    Files.copy(
+        resources.resolve("ed25519_without_passphrase.key"),
+        keysDir.resolve("ed25519_without_passphrase.key")
+    );
+    Files.copy(
+        resources.resolve("sshsig_message.txt"),
+        keysDir.resolve("not_a_key.txt")
+    );
+  }
+
+  @Test
+  public void listsOneAliasPerKey() throws Exception {
+    final KeyStore keyStore = loadKeyStore(null);
+
+    assertThat(Collections.list(keyStore.aliases())).hasSize(2)
+        .contains("deploy@example")
+        .anyMatch(alias -> alias.startsWith("SHA256:"));
+  }
+
+  @Test
+  public void decryptsRequestedAlias() throws Exception {
+    final KeyStore keyStore = loadKeyStore(null);
+    final KeyPair expected = OpenSSHKeyReader.getInstance().readFile(
+        resources.resolve("ed25519_with_passphrase.key"),
+        "ed25519123"
+    ).get(0);
+
+    assertThat(keyStore.getKey("deploy@example", "ed25519123".toCharArray()))
+        .isEqualTo(expected.getPrivate());
+
+    final KeyStore.Entry entry = keyStore.getEntry(
+        "deploy@example",
+        new KeyStore.PasswordProtection("ed25519123".toCharArray())
+    );
+
+    assertThat(entry).isInstanceOf(OpenSSHKeyStoreEntry.class);
+    assertThat(((OpenSSHKeyStoreEntry) entry).keyPair.getPublic())
+        .isEqualTo(expected.getPublic());
+  }
+
+  @Test
+  public void usesDefaultPassphrase() throws Exception {
+    final KeyStore keyStore = loadKeyStore("ed25519123".toCharArray());
+
+    assertThat(keyStore.getKey("deploy@example", null)).isNotNull();
+  }
+
+  @Test
+  public void rejectsWrongPassphraseAfterKeyIsCached() throws Exception {
+    final KeyStore keyStore = loadKeyStore(null);
+
+    keyStore.getKey("deploy@example", "ed25519123".toCharArray());
+
+    assertThatThrownBy(
+        () -> keyStore.getKey("deploy@example", "wrong".toCharArray())
+    ).isInstanceOf(UnrecoverableKeyException.class);
+  }
+
+  @Test
+  public void loadsSingleKeyFromStream() throws Exception {
+    final KeyStore keyStore =
+        KeyStore.getInstance(OpenSSHProvider.KEY_STORE_TYPE, provider);
+
+    try (InputStream in = Files.newInputStream(
+        resources.resolve("ed25519_without_passphrase.key"))) {
+      keyStore.load(in, null);
+    }
+
+    assertThat(keyStore.size()).isEqualTo(1);
+    assertThat(keyStore.getKey(keyStore.aliases().nextElement(), null))
+        .isNotNull();
+  }
+
+  @Test
+  public void decryptsBundleFileOnce() throws Exception {
+    final List<OpenSSHKeyEntry> entries = new ArrayList<>();
+
+    for (int idx = 0; idx < 3; idx++) {
+      entries.add(new OpenSSHKeyEntry(
+          new KeyPairGenerator().generateKeyPair(),
+          "bundle" + idx
+      ));
+    }
+
+    final Path bundle = keysDir.resolve("bundle");
+    OpenSSHKeyWriter.getInstance().writeFile(
+        bundle,
+        entries,
+        OpenSSHKeyWriteOptions.encrypted("bundle", 2)
+    );
+
+    final KeyStore keyStore =
+        KeyStore.getInstance(OpenSSHProvider.KEY_STORE_TYPE, provider);
+    keyStore.load(new OpenSSHKeyStoreParameter(bundle, "bundle".toCharArray()));
+    final KDFGovernor governor = new KDFGovernor();
+    BCryptKDF.getInstance().setGovernor(governor);
+
+    try {
+      for (final String alias : Collections.list(keyStore.aliases())) {
+        assertThat(keyStore.getKey(alias, null)).isNotNull();
+      }
+    } finally {
+      BCryptKDF.getInstance().setGovernor(null);
+    }
+
+    assertThat(keyStore.size()).isEqualTo(3);
+    assertThat(governor.getCompletedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void providerVersionIsProjectVersion() {
+    assertThat(provider.getVersionStr()).matches("\\d+\\.\\d+\\.\\d+.*");
+  }
+
+  private KeyStore loadKeyStore(final char[] passphrase) throws Exception {
+    final KeyStore keyStore =
+        KeyStore.getInstance(OpenSSHProvider.KEY_STORE_TYPE, provider);
+    keyStore.load(new OpenSSHKeyStoreParameter(keysDir, passphrase));
+
+    return keyStore;
+  }
+
+}
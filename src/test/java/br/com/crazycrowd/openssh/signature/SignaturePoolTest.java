@@ -0,0 +1,211 @@
+package br.com.crazycrowd.openssh.signature;
+
+import br.com.crazycrowd.openssh.ByteArrayWriter;
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SignaturePoolTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final OpenSSHSignatureType ED25519 =
+      OpenSSHSignatureType.ED25519;
+
+  @Test
+  public void reusesSignatureInstances() throws Exception {
+    final KeyPair keyPair = readKeyPair("ed25519_user.key");
+    final SignaturePool pool = new SignaturePool();
+
+    final Signature first = pool.withSigner(
+        ED25519,
+        keyPair.getPrivate(),
+        signature -> signature
+    );
+    final Signature second = pool.withSigner(
+        ED25519,
+        keyPair.getPrivate(),
+        signature -> signature
+    );
+    final Signature verifier = pool.withVerifier(
+        ED25519,
+        keyPair.getPublic(),
+        signature -> signature
+    );
+
+    assertThat(second).isSameAs(first);
+    // Signing and verifying instances of a key are pooled apart
+    assertThat(verifier).isNotSameAs(first);
+    assertThat(pool.getKeyCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void signsAndVerifiesConcurrentlyWithOneKey() throws Exception {
+    final KeyPair keyPair = readKeyPair("ed25519_user.key");
+    final SignaturePool pool = new SignaturePool(4, 2);
+    final OpenSSHSigner signer = new OpenSSHSigner(pool);
+    final OpenSSHVerifier verifier = new OpenSSHVerifier(pool);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      final List<Future<Boolean>> results = new ArrayList<>();
+
+      for (int thread = 0; thread < 8; thread++) {
+        final int threadIdx = thread;
+
+        results.add(executor.submit(() -> {
+          for (int idx = 0; idx < 25; idx++) {
+            final byte[] message = ("message " + threadIdx + "-" + idx)
+                .getBytes(StandardCharsets.UTF_8);
+            final byte[] signature = signer.sign(keyPair.getPrivate(), message);
+
+            // Ed25519 is deterministic: a pooled instance left dirty by
+            // another thread would produce different bytes
+            final PublicKey publicKey = keyPair.getPublic();
+            final boolean correct =
+                Arrays.equals(signature, signUnpooled(keyPair, message)) &&
+                    verifier.verify(publicKey, message, signature) &&
+                    !verifier.verify(publicKey, new byte[1], signature);
+
+            if (!correct) {
+              return false;
+            }
+          }
+
+          return true;
+        }));
+      }
+
+      for (final Future<Boolean> result : results) {
+        assertThat(result.get(60, TimeUnit.SECONDS)).isTrue();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void keepsBoundedNumberOfKeys() throws Exception {
+    final SignaturePool pool = new SignaturePool(2, 1);
+
+    for (final String keyFile : List.of(
+        "ed25519_user.key",
+        "ed25519_ca.key",
+        "ed25519_without_passphrase.key"
+    )) {
+      pool.withVerifier(
+          ED25519,
+          readKeyPair(keyFile).getPublic(),
+          signature -> signature
+      );
+    }
+
+    assertThat(pool.getKeyCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void keepsBoundedNumberOfIdleInstancesPerKey() throws Exception {
+    final PublicKey publicKey = readKeyPair("ed25519_user.key").getPublic();
+    final SignaturePool pool = new SignaturePool(4, 2);
+
+    final Set<Signature> first = borrowConcurrently(pool, publicKey, 4);
+    final Set<Signature> second = borrowConcurrently(pool, publicKey, 4);
+
+    assertThat(first).hasSize(4);
+    assertThat(second).hasSize(4);
+
+    // Only 2 of the first 4 instances went back to pool
+    final Set<Signature> reused = new HashSet<>(second);
+    reused.retainAll(first);
+    assertThat(reused).hasSize(2);
+  }
+
+  /**
+   * Every borrower holds its instance until all of them have one, so each
+   * gets a different instance.
+   */
+  private Set<Signature> borrowConcurrently(
+      final SignaturePool pool,
+      final PublicKey publicKey,
+      final int borrowers
+  ) throws Exception {
+    final Set<Signature> borrowed = ConcurrentHashMap.newKeySet();
+    final CountDownLatch allBorrowed = new CountDownLatch(borrowers);
+    final ExecutorService executor = Executors.newFixedThreadPool(borrowers);
+
+    try {
+      final List<Future<Boolean>> results = new ArrayList<>();
+
+      for (int idx = 0; idx < borrowers; idx++) {
+        results.add(executor.submit(() -> pool.withVerifier(
+            ED25519,
+            publicKey,
+            signature -> {
+              borrowed.add(signature);
+              allBorrowed.countDown();
+              return await(allBorrowed);
+            }
+        )));
+      }
+
+      for (final Future<Boolean> result : results) {
+        assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return borrowed;
+  }
+
+  private static boolean await(final CountDownLatch latch) {
+    try {
+      return latch.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Same OpenSSH signature blob OpenSSHSigner writes, from a fresh Signature.
+   */
+  private static byte[] signUnpooled(
+      final KeyPair keyPair,
+      final byte[] message
+  ) throws GeneralSecurityException {
+    final Signature signature = ED25519.signatureFactory.newSignature();
+    signature.initSign(keyPair.getPrivate());
+    signature.update(message);
+
+    return new ByteArrayWriter()
+        .writeString(ED25519.typeName)
+        .writeString(signature.sign())
+        .toByteArray();
+  }
+
+  private static KeyPair readKeyPair(final String fileName) throws Exception {
+    return OpenSSHKeyReader.getInstance()
+        .readFile(resources.resolve(fileName))
+        .get(0);
+  }
+
+}
@@ -0,0 +1,47 @@
+package br.com.crazycrowd.openssh.sshsig;
+
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SSHSigSignerTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final SSHSigSigner signer = new SSHSigSigner();
+
+  /**
+   * Ed25519 signatures are deterministic, so output must match byte by byte
+   * the signature `ssh-keygen -Y sign -n file` wrote for the same message.
+   */
+  @Test
+  public void signsLikeSshKeygen() throws Exception {
+    final KeyPair keyPair = OpenSSHKeyReader.getInstance()
+        .readFile(resources.resolve("ed25519_user.key"))
+        .get(0);
+    final String expected = Files.readString(
+        resources.resolve("sshsig_message.txt.ed25519.sig")
+    );
+
+    final byte[] fromBytes = signer.sign(
+        keyPair,
+        "file",
+        Files.readAllBytes(resources.resolve("sshsig_message.txt"))
+    );
+
+    final byte[] fromStream;
+    try (InputStream in =
+             Files.newInputStream(resources.resolve("sshsig_message.txt"))) {
+      fromStream = signer.sign(keyPair, "file", in);
+    }
+
+    assertThat(SSHSig.armor(fromBytes)).isEqualTo(expected);
+    assertThat(fromStream).isEqualTo(fromBytes);
+  }
+
+}
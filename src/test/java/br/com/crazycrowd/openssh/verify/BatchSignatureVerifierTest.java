@@ -0,0 +1,201 @@
+package br.com.crazycrowd.openssh.verify;
+
+import br.com.crazycrowd.openssh.OpenSSHKeyReader;
+import br.com.crazycrowd.openssh.OpenSSHKeyWriter;
+import br.com.crazycrowd.openssh.signature.OpenSSHSigner;
+import br.com.crazycrowd.openssh.signature.SignaturePool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchSignatureVerifierTest {
+
+  private static final Path resources = Path.of("src", "test", "resources");
+  private static final BatchSignatureVerifier verifier =
+      new BatchSignatureVerifier();
+
+  @AfterAll
+  public static void closeVerifier() {
+    verifier.close();
+  }
+
+  @Test
+  public void verifiesSshKeygenSignature() throws Exception {
+    final byte[] publicKey = readPublicKeyBlob("ed25519_user.key");
+    final byte[] message =
+        Files.readAllBytes(resources.resolve("sshsig_message.txt"));
+    final byte[] signature = Files.readAllBytes(
+        resources.resolve("sshsig_message.txt.ed25519.sig")
+    );
+
+    final List<Boolean> results = verifier.verify(List.of(
+        new SignatureVerificationRequest(publicKey, message, signature, "file"),
+        new SignatureVerificationRequest(publicKey, message, signature, "git"),
+        new SignatureVerificationRequest(
+            readPublicKeyBlob("ed25519_ca.key"),
+            message,
+            signature,
+            "file"
+        ),
+        new SignatureVerificationRequest(
+            publicKey,
+            "tampered".getBytes(),
+            signature,
+            "file"
+        )
+    ));
+
+    assertThat(results).containsExactly(true, false, false, false);
+  }
+
+  @Test
+  public void verifiesLargeBatchOfWireSignatures() throws Exception {
+    final KeyPair keyPair = OpenSSHKeyReader.getInstance()
+        .readFile(resources.resolve("ed25519_user.key"))
+        .get(0);
+    final byte[] publicKey =
+        OpenSSHKeyWriter.getInstance().writePublicKey(keyPair.getPublic());
+    final OpenSSHSigner signer = new OpenSSHSigner();
+
+    final List<SignatureVerificationRequest> requests = new ArrayList<>();
+    final List<Boolean> expected = new ArrayList<>();
+
+    for (int idx = 0; idx < 500; idx++) {
+      final byte[] message = ("message " + idx).getBytes();
+      final byte[] signature = signer.sign(keyPair.getPrivate(), message);
+
+      if (idx % 7 == 0) {
+        signature[signature.length - 1] ^= 1;
+      }
+
+      requests.add(
+          new SignatureVerificationRequest(publicKey, message, signature)
+      );
+      expected.add(idx % 7 != 0);
+    }
+
+    assertThat(verifier.verify(requests)).isEqualTo(expected);
+  }
+
+  @Test
+  public void reportsInvalidSignaturesOfMixedBatchAtTheirIndices()
+      throws Exception {
+    final KeyPair userKeyPair = readKeyPair("ed25519_user.key");
+    final KeyPair caKeyPair = readKeyPair("ed25519_ca.key");
+    final byte[] sshSigMessage =
+        Files.readAllBytes(resources.resolve("sshsig_message.txt"));
+    final byte[] sshSig = Files.readAllBytes(
+        resources.resolve("sshsig_message.txt.ed25519.sig")
+    );
+    final OpenSSHSigner signer = new OpenSSHSigner();
+    final SignaturePool signaturePool = new SignaturePool();
+
+    final List<SignatureVerificationRequest> requests = new ArrayList<>();
+    final List<Integer> invalidIndices = new ArrayList<>();
+
+    for (int idx = 0; idx < 200; idx++) {
+      final boolean userKey = idx % 2 == 0;
+      final KeyPair keyPair = userKey ? userKeyPair : caKeyPair;
+      final KeyPair otherKeyPair = userKey ? caKeyPair : userKeyPair;
+      final byte[] publicKey = OpenSSHKeyWriter.getInstance()
+          .writePublicKey(keyPair.getPublic());
+      final byte[] message = ("message " + idx).getBytes();
+      final SignatureVerificationRequest request;
+      final boolean valid;
+
+      if (idx % 5 == 3) {
+        // SSHSIG written by ssh-keygen with user key
+        request = new SignatureVerificationRequest(
+            publicKey,
+            sshSigMessage,
+            sshSig,
+            "file"
+        );
+        valid = userKey;
+      } else if (idx % 13 == 0) {
+        request = new SignatureVerificationRequest(
+            publicKey,
+            message,
+            signer.sign(otherKeyPair.getPrivate(), message)
+        );
+        valid = false;
+      } else if (idx % 17 == 0) {
+        request = new SignatureVerificationRequest(
+            publicKey,
+            message,
+            new byte[]{1, 2, 3}
+        );
+        valid = false;
+      } else {
+        request = new SignatureVerificationRequest(
+            publicKey,
+            message,
+            signer.sign(keyPair.getPrivate(), message)
+        );
+        valid = true;
+      }
+
+      requests.add(request);
+
+      if (!valid) {
+        invalidIndices.add(idx);
+      }
+    }
+
+    final List<Boolean> results;
+    final ForkJoinPool pool = new ForkJoinPool(4);
+
+    try (BatchSignatureVerifier batchVerifier = new BatchSignatureVerifier(
+        pool,
+        BatchSignatureVerifier.DEFAULT_KEY_CACHE_SIZE,
+        signaturePool
+    )) {
+      // One request per key first, on this thread, as concurrent misses of
+      // the same key may both parse it
+      batchVerifier.verify(requests.get(0));
+      batchVerifier.verify(requests.get(1));
+      results = batchVerifier.verify(requests);
+
+      // Each signer key is parsed once, and its verifiers pooled under it
+      assertThat(batchVerifier.getKeyCacheMissCount()).isEqualTo(2);
+      assertThat(batchVerifier.getKeyCacheHitCount()).isEqualTo(200);
+      assertThat(signaturePool.getKeyCount()).isEqualTo(2);
+    } finally {
+      pool.shutdown();
+    }
+
+    final List<Integer> actualInvalidIndices = new ArrayList<>();
+
+    for (int idx = 0; idx < results.size(); idx++) {
+      if (!results.get(idx)) {
+        actualInvalidIndices.add(idx);
+      }
+    }
+
+    assertThat(actualInvalidIndices).isEqualTo(invalidIndices);
+  }
+
+  private KeyPair readKeyPair(final String keyName) throws Exception {
+    return OpenSSHKeyReader.getInstance()
+        .readFile(resources.resolve(keyName))
+        .get(0);
+  }
+
+  private byte[] readPublicKeyBlob(final String keyName) throws Exception {
+    return OpenSSHKeyWriter.getInstance().writePublicKey(
+        OpenSSHKeyReader.getInstance()
+            .readFile(resources.resolve(keyName))
+            .get(0)
+            .getPublic()
+    );
+  }
+
+}